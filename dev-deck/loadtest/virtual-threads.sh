@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# 平台线程 / 虚拟线程吞吐与 p99 对比压测（依赖 wrk）
+#
+# 用法：
+#   1. VIRTUAL_THREADS_ENABLED=false 启动应用，执行 ./virtual-threads.sh platform
+#   2. VIRTUAL_THREADS_ENABLED=true  启动应用，执行 ./virtual-threads.sh virtual
+#   3. 对比 results/ 下两份报告中的 Requests/sec 与 99% 延迟
+#
+# 目前尚未记录任何对比数据，虚拟线程模式保持默认关闭，生产开启前须先按上述步骤实测。
+#
+# 环境变量：
+#   BASE_URL     应用地址，默认 http://127.0.0.1:8080/dev-deck
+#   TOKEN        登录后获取的 token（题目接口需要鉴权）
+#   THREADS      wrk 线程数，默认 8
+#   CONNECTIONS  并发连接数，默认 2000（远大于 Tomcat 默认 200 个工作线程）
+#   DURATION     每个接口压测时长，默认 60s
+set -euo pipefail
+
+MODE=${1:?用法: $0 platform|virtual}
+BASE_URL=${BASE_URL:-http://127.0.0.1:8080/dev-deck}
+TOKEN=${TOKEN:?请设置 TOKEN}
+THREADS=${THREADS:-8}
+CONNECTIONS=${CONNECTIONS:-2000}
+DURATION=${DURATION:-60s}
+
+cd "$(dirname "$0")"
+mkdir -p results
+REPORT="results/${MODE}-$(date +%Y%m%d%H%M%S).txt"
+
+# 覆盖数据库（分页）、Redis（会话校验）与纯内存（分类树）三类路径
+ENDPOINTS=(
+  "/api/questions?page=1&size=20"
+  "/api/categories/tree"
+  "/user/current"
+)
+
+for endpoint in "${ENDPOINTS[@]}"; do
+  echo "==== ${MODE} ${endpoint} ====" | tee -a "$REPORT"
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency \
+      -H "Authorization: Bearer ${TOKEN}" \
+      "${BASE_URL}${endpoint}" | tee -a "$REPORT"
+done
+
+echo "报告已写入 ${REPORT}"
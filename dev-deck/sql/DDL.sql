@@ -369,3 +369,48 @@ comment on column question_favorite.deleted_at is '删除日期时间';
 comment on column question_favorite.updated_by is '修改人ID';
 
 alter table "question_favorite" owner to postgres;
+
+-- 游标分页索引（排序字段 + id，仅覆盖未删除数据）
+CREATE INDEX idx_question_created_id ON public.question USING btree (created_at, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_question_title_id ON public.question USING btree (title, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_question_difficulty_id ON public.question USING btree (difficulty, id) WHERE deleted_at IS NULL;
+CREATE INDEX idx_question_category_created_id ON public.question USING btree (category_id, created_at, id) WHERE deleted_at IS NULL;
+
+-- 题目全文搜索：标题 + 提示 + 描述 的生成列，写入时由数据库自动维护
+-- pg_trgm 三元组索引对中英文子串均可生效（无需分词），支持 ILIKE 与 word_similarity 排序
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+ALTER TABLE question ADD COLUMN search_text TEXT
+    GENERATED ALWAYS AS (title || ' ' || coalesce(hint, '') || ' ' || content) STORED;
+CREATE INDEX idx_question_search_trgm ON public.question USING gin (search_text gin_trgm_ops);
+COMMENT ON COLUMN question.search_text IS '搜索文本（标题+提示+描述，生成列）';
+
+-- 收藏列表：按用户过滤、按收藏时间倒序分页（question_id 作为游标次级键）
+CREATE INDEX idx_question_favorite_user_created ON public.question_favorite USING btree (user_id, created_at DESC, question_id DESC) WHERE deleted_at IS NULL;
+
+-- 题目收藏数：由应用按收藏变化增量写回，避免对收藏表 COUNT(*)
+ALTER TABLE question ADD COLUMN favorite_count INTEGER NOT NULL DEFAULT 0;
+COMMENT ON COLUMN question.favorite_count IS '收藏数';
+UPDATE question q SET favorite_count = f.cnt
+FROM (SELECT question_id, COUNT(*) AS cnt FROM question_favorite WHERE deleted_at IS NULL GROUP BY question_id) f
+WHERE q.id = f.question_id;
+CREATE INDEX idx_question_favorite_count_id ON public.question USING btree (favorite_count, id) WHERE deleted_at IS NULL;
+
+-- 会话版本：token 中携带签发时的版本，修改密码后递增使旧 token 失效
+ALTER TABLE users ADD COLUMN session_version INTEGER NOT NULL DEFAULT 0;
+COMMENT ON COLUMN users.session_version IS '会话版本';
+
+-- 后台用户列表：昵称/邮箱子串搜索走三元组索引（关键词不足3个字符时无法利用索引）
+CREATE INDEX idx_users_nickname_trgm ON public.users USING gin (nickname gin_trgm_ops) WHERE deleted_at IS NULL;
+CREATE INDEX idx_users_email_trgm ON public.users USING gin (email gin_trgm_ops) WHERE deleted_at IS NULL;
+
+-- 用户角色：同一用户同一角色只保留一行（优先保留未删除、ID最小的行），再次分配时恢复软删除的行
+DELETE FROM user_roles a USING user_roles b
+WHERE a.user_id = b.user_id
+  AND a.role_id = b.role_id
+  AND (a.deleted_at IS NOT NULL, a.id) > (b.deleted_at IS NOT NULL, b.id);
+-- 同时服务于按当前页用户ID查主角色
+CREATE UNIQUE INDEX uk_user_role ON public.user_roles USING btree (user_id, role_id);
+
+-- 收藏游标以毫秒时间戳编码，历史数据的收藏时间截断到毫秒
+UPDATE question_favorite SET created_at = date_trunc('milliseconds', created_at)
+WHERE created_at <> date_trunc('milliseconds', created_at);
@@ -0,0 +1,49 @@
+-- 题目搜索基准测试：在独立库中生成 100 万条题目后对比 LIKE 顺序扫描与三元组索引
+-- 用法：psql -d dev_deck_bench -f DDL.sql && psql -d dev_deck_bench -f bench/question_search_bench.sql
+
+INSERT INTO category (name, slug, parent_id, sort_weight, description, is_enabled, created_by, created_at, updated_at, updated_by)
+SELECT '分类' || g, 'bench-' || g, 0, g, '基准测试分类', 'Y', 1, now(), now(), 1
+FROM generate_series(1, 50) g;
+
+INSERT INTO question (uuid, title, slug, content, answer_template, correct_answer, type, difficulty, submit_count,
+                      hint, is_official, is_enabled, category_id, created_by, created_at, updated_at, updated_by)
+SELECT gen_random_uuid()::text,
+       (ARRAY ['Java', 'Redis', '数据库', 'Spring', '并发', 'JVM', '索引', '事务'])[1 + g % 8] || ' 题目 ' || md5(g::text),
+       'bench-q-' || g,
+       repeat('这是一道关于 ' || md5((g * 7)::text) || ' 的题目描述。', 20),
+       '',
+       '{}'::json,
+       1 + g % 6,
+       1 + g % 4,
+       0,
+       '提示 ' || md5((g * 13)::text),
+       g % 2 = 0,
+       true,
+       (SELECT min(id) FROM category) + g % 50,
+       1,
+       now() - (g || ' seconds')::interval,
+       now(),
+       1
+FROM generate_series(1, 1000000) g;
+
+ANALYZE question;
+
+\timing on
+
+-- 旧路径：标题 LIKE，顺序扫描
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM question WHERE deleted_at IS NULL AND title LIKE '%索引%' ORDER BY created_at DESC LIMIT 10;
+
+-- 新路径：search_text 三元组索引 + 相关度排序（中文）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM question
+WHERE deleted_at IS NULL AND search_text ILIKE '%索引%'
+ORDER BY (title ILIKE '%索引%') DESC, word_similarity('索引', search_text) DESC, id DESC
+LIMIT 10;
+
+-- 新路径：英文子串
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM question
+WHERE deleted_at IS NULL AND search_text ILIKE '%a1b2%'
+ORDER BY (title ILIKE '%a1b2%') DESC, word_similarity('a1b2', search_text) DESC, id DESC
+LIMIT 10;
@@ -0,0 +1,79 @@
+-- 后台用户列表基准测试：在独立库中生成 100 万用户后对比旧查询（LIKE + 全表聚合主角色 + OFFSET）与新查询
+-- 用法：psql -d dev_deck_bench -f DDL.sql && psql -d dev_deck_bench -f bench/user_list_bench.sql
+
+INSERT INTO role (name, description, created_by, created_at, updated_by, updated_at)
+SELECT '角色' || g, '基准测试角色', 1, now(), 1, now()
+FROM generate_series(1, 5) g;
+
+INSERT INTO users (uuid, email, password, nickname, created_at, updated_at)
+SELECT gen_random_uuid()::text,
+       'user' || g || '_' || substr(md5(g::text), 1, 6) || '@example.com',
+       md5('123456'),
+       (ARRAY ['张三', '李四', 'dev', 'coder', '测试', 'alice', 'bob', '王五'])[1 + g % 8] || substr(md5((g * 7)::text), 1, 8),
+       now() - (g || ' seconds')::interval,
+       now()
+FROM generate_series(1, 1000000) g;
+
+-- 每个用户 1~2 个角色，约 10% 的分配已软删除
+INSERT INTO user_roles (user_id, role_id, created_by, created_at, updated_by, updated_at, deleted_at)
+SELECT u.id, (SELECT min(id) FROM role) + (u.id + k) % 5, 1, now(), 1, now(),
+       CASE WHEN u.id % 10 = 0 THEN now() END
+FROM users u
+CROSS JOIN generate_series(0, 1) k
+WHERE k = 0 OR u.id % 3 = 0;
+
+ANALYZE users;
+ANALYZE user_roles;
+
+\timing on
+
+-- 旧路径：LIKE 顺序扫描 + 每次聚合全部 user_roles + 深分页 OFFSET
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.uuid, u.email, u.nickname, u.avatar_url, r.id AS role_id, r.name AS role_name, r.description AS role_description
+FROM users u
+LEFT JOIN (SELECT ur.user_id, MIN(r.id) AS min_role_id
+           FROM user_roles ur JOIN role r ON ur.role_id = r.id
+           WHERE r.deleted_at IS NULL
+           GROUP BY ur.user_id) AS t ON u.id = t.user_id
+LEFT JOIN role r ON t.min_role_id = r.id
+WHERE u.deleted_at IS NULL AND u.nickname LIKE CONCAT('%', 'coder', '%')
+ORDER BY u.id ASC
+LIMIT 10 OFFSET 50000;
+
+-- 新路径：三元组索引过滤 + 主键游标
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id, u.uuid, u.email, u.nickname, u.avatar_url
+FROM users u
+WHERE u.deleted_at IS NULL AND u.nickname ILIKE '%coder%' AND u.id > 400000
+ORDER BY u.id ASC
+LIMIT 11;
+
+-- 新路径：低命中率的邮箱子串（三元组索引的主要收益场景）
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.id, u.uuid, u.email, u.nickname, u.avatar_url
+FROM users u
+WHERE u.deleted_at IS NULL AND u.email ILIKE '%user4242\_%'
+ORDER BY u.id ASC
+LIMIT 11;
+
+-- 旧路径：同一邮箱子串
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.uuid, u.email, u.nickname, u.avatar_url, r.id AS role_id, r.name AS role_name, r.description AS role_description
+FROM users u
+LEFT JOIN (SELECT ur.user_id, MIN(r.id) AS min_role_id
+           FROM user_roles ur JOIN role r ON ur.role_id = r.id
+           WHERE r.deleted_at IS NULL
+           GROUP BY ur.user_id) AS t ON u.id = t.user_id
+LEFT JOIN role r ON t.min_role_id = r.id
+WHERE u.deleted_at IS NULL AND u.email LIKE CONCAT('%', 'user4242\_', '%')
+ORDER BY u.id ASC
+LIMIT 10;
+
+-- 新路径：当前页用户的主角色，只访问这一页的 user_roles
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT ON (ur.user_id) ur.user_id, r.id AS role_id, r.name AS role_name, r.description AS role_description
+FROM user_roles ur
+JOIN role r ON r.id = ur.role_id AND r.deleted_at IS NULL
+WHERE ur.deleted_at IS NULL
+  AND ur.user_id IN (SELECT id FROM users WHERE id > 400000 ORDER BY id LIMIT 10)
+ORDER BY ur.user_id, r.id;
@@ -3,9 +3,11 @@ package org.zhj.devdeck;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan(basePackages = "org.zhj.devdeck.mapper")
+@EnableScheduling
 public class DevDeckApplication {
 
     public static void main(String[] args) {
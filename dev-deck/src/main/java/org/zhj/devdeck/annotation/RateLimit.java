@@ -0,0 +1,61 @@
+package org.zhj.devdeck.annotation;
+
+import org.zhj.devdeck.ratelimit.RateLimitAlgorithm;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口限流，标注在控制器方法上，可叠加多条规则
+ * <p>
+ * 由 {@link org.zhj.devdeck.interceptor.RateLimitInterceptor} 在请求进入控制器前校验，
+ * 超限返回 {@link org.zhj.devdeck.enums.ResultCode#TOO_MANY_REQUESTS}
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(RateLimit.List.class)
+public @interface RateLimit {
+
+    /**
+     * 规则名称，作为 Redis key 的一部分，同名规则共享配额
+     */
+    String name();
+
+    /**
+     * 限流维度
+     */
+    Dimension by() default Dimension.IP;
+
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.SLIDING_WINDOW;
+
+    /**
+     * 每个窗口允许的请求数；令牌桶算法下为桶容量，且每个窗口补满一次
+     */
+    int permits();
+
+    long window() default 1;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    enum Dimension {
+        /** 客户端IP */
+        IP,
+        /** 当前登录用户，未登录时按IP */
+        USER,
+        /** 接口全局 */
+        GLOBAL
+    }
+
+    @Documented
+    @Target(ElementType.METHOD)
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+        RateLimit[] value();
+    }
+}
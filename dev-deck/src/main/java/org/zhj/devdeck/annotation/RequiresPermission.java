@@ -0,0 +1,23 @@
+package org.zhj.devdeck.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口所需权限，标注在控制器方法或类上（方法上的优先）
+ * <p>
+ * 由 {@link org.zhj.devdeck.interceptor.PermissionInterceptor} 在请求进入控制器前校验
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresPermission {
+
+    /**
+     * 权限编码，对应 permission.code
+     */
+    String value();
+}
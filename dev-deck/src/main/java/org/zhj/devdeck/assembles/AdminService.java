@@ -1,11 +1,14 @@
 package org.zhj.devdeck.assembles;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.dto.BindRolePermissionDTO;
+import org.zhj.devdeck.dto.BulkUpdateUserRolesDTO;
 import org.zhj.devdeck.dto.CreatePermissionDTO;
 import org.zhj.devdeck.dto.CreateRoleDTO;
 import org.zhj.devdeck.dto.UpdateUserRolesDTO;
 import org.zhj.devdeck.dto.UserPageDTO;
+import org.zhj.devdeck.response.BulkUserRolesResult;
 import org.zhj.devdeck.vo.PermissionVO;
 import org.zhj.devdeck.vo.RoleVO;
 import org.zhj.devdeck.vo.UserDetailVO;
@@ -34,5 +37,12 @@ public interface AdminService {
 
     IPage<UserVO> listUser(UserPageDTO dto);
 
+    CursorPage<UserVO> listUserCursor(UserPageDTO dto);
+
     String updateUserRoles(UpdateUserRolesDTO dto);
+
+    /**
+     * 批量更新用户角色，一个事务内完成并只发送一条权限失效通知
+     */
+    BulkUserRolesResult bulkUpdateUserRoles(BulkUpdateUserRolesDTO dto);
 }
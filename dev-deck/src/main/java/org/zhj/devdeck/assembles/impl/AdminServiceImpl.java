@@ -8,21 +8,27 @@ import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.zhj.devdeck.assembles.AdminService;
-import org.zhj.devdeck.assembles.enums.RoleEnum;
+import org.zhj.devdeck.cache.PermissionEngine;
+import org.zhj.devdeck.cache.RoleDetailCache;
+import org.zhj.devdeck.cache.UserDirectory;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.dto.BindRolePermissionDTO;
+import org.zhj.devdeck.dto.BulkUpdateUserRolesDTO;
 import org.zhj.devdeck.dto.CreatePermissionDTO;
 import org.zhj.devdeck.dto.CreateRoleDTO;
 import org.zhj.devdeck.dto.UpdateUserRolesDTO;
 import org.zhj.devdeck.dto.UserPageDTO;
 import org.zhj.devdeck.model.*;
+import org.zhj.devdeck.response.BulkUserRolesResult;
 import org.zhj.devdeck.service.*;
+import org.zhj.devdeck.utils.UserContext;
 import org.zhj.devdeck.vo.PermissionVO;
 import org.zhj.devdeck.vo.RoleVO;
 import org.zhj.devdeck.vo.UserDetailVO;
 import org.zhj.devdeck.vo.UserVO;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * @Author 86155
@@ -32,26 +38,24 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class AdminServiceImpl implements AdminService {
 
-    // 缓存管理员角色
-    private static final Integer DEFAULT_USER_TOTAL = 10;
-    private static final Map<Integer, User> ADMIN_ROLES = new ConcurrentHashMap<>(DEFAULT_USER_TOTAL);
     private final PermissionService permissionService;
     private final RoleService roleService;
     private final UsersService usersService;
     private final RolePermissionsService rolePermissionsService;
     private final UserRolesService userRolesService;
+    private final PermissionEngine permissionEngine;
+    private final RoleDetailCache roleDetailCache;
+    private final UserDirectory userDirectory;
 
-    AdminServiceImpl(PermissionService permissionService, RoleService roleService, UserRolesService userRolesService, UsersService usersService, RolePermissionsService rolePermissionsService) {
+    AdminServiceImpl(PermissionService permissionService, RoleService roleService, UserRolesService userRolesService, UsersService usersService, RolePermissionsService rolePermissionsService, PermissionEngine permissionEngine, RoleDetailCache roleDetailCache, UserDirectory userDirectory) {
         this.permissionService = permissionService;
         this.roleService = roleService;
         this.usersService = usersService;
         this.rolePermissionsService = rolePermissionsService;
         this.userRolesService = userRolesService;
-        LambdaQueryWrapper<UserRoles> wrapper = new LambdaQueryWrapper<>();
-        List<User> userList = usersService.getUserByRoleId(RoleEnum.SYSTEM_ADMIN.getCode(), DEFAULT_USER_TOTAL);
-        userList.forEach(user -> {
-            ADMIN_ROLES.put(user.getId(), user);
-        });
+        this.permissionEngine = permissionEngine;
+        this.roleDetailCache = roleDetailCache;
+        this.userDirectory = userDirectory;
     }
 
     @Override
@@ -74,28 +78,14 @@ public class AdminServiceImpl implements AdminService {
         }
         Page<Permission> page = new Page<>(pageNo, pageSize);
         permissionService.page(page, null);
-        return page.convert(Permission -> {
+        // 整页涉及的创建人/修改人一次解析
+        Map<Integer, String> nicknames = userDirectory.getNicknames(auditUserIds(page.getRecords(),
+                Permission::getCreatedBy, Permission::getUpdatedBy));
+        return page.convert(permission -> {
             PermissionVO vo = new PermissionVO();
-            BeanUtils.copyProperties(Permission, vo);
-            User cu = ADMIN_ROLES.get(Permission.getCreatedBy());
-            User uu = ADMIN_ROLES.get(Permission.getUpdatedBy());
-            if(Objects.nonNull(cu)) {
-                vo.setCreatedBy(cu.getNickname());
-                vo.setUpdatedBy(uu.getNickname());
-                return vo;
-            }
-            Set<Integer> ids = new HashSet<>();
-            ids.add(Permission.getCreatedBy());
-            ids.add(Permission.getUpdatedBy());
-            List<User> users = usersService.listByIds(ids);
-            users.forEach(user -> {
-                if(user.getId().equals(Permission.getCreatedBy())) {
-                    vo.setCreatedBy(user.getNickname());
-                }
-                if(user.getId().equals(Permission.getUpdatedBy())) {
-                    vo.setUpdatedBy(user.getNickname());
-                }
-            });
+            BeanUtils.copyProperties(permission, vo);
+            vo.setCreatedBy(nicknames.get(permission.getCreatedBy()));
+            vo.setUpdatedBy(nicknames.get(permission.getUpdatedBy()));
             return vo;
         });
     }
@@ -120,15 +110,19 @@ public class AdminServiceImpl implements AdminService {
         }
         Page<Role> page = new Page<>(pageNo, pageSize);
         roleService.page(page);
-        return page.convert(role -> {
-            // 直接调用getRoleDetail获取完整的角色信息（包含权限）
-            return roleService.getRoleDetail(role.getId());
-        });
+        // 整页角色的权限一次查询加载
+        Map<Integer, RoleVO> details = roleService.getRoleDetails(page.getRecords().stream().map(Role::getId).toList());
+        Map<Integer, String> nicknames = userDirectory.getNicknames(roleAuditUserIds(details.values()));
+        return page.convert(role -> withNicknames(details.get(role.getId()), nicknames));
     }
 
     @Override
     public RoleVO getRoleDetail(Integer id) {
-        return roleService.getRoleDetail(id);
+        RoleVO detail = roleService.getRoleDetail(id);
+        if (detail == null) {
+            return null;
+        }
+        return withNicknames(detail, userDirectory.getNicknames(roleAuditUserIds(List.of(detail))));
     }
 
     @Override
@@ -146,6 +140,8 @@ public class AdminServiceImpl implements AdminService {
         if(!CollectionUtils.isEmpty(dto.getPermissionIdsToDelete())) {
             rolePermissionsService.deletePermission(dto);
         }
+        roleDetailCache.evict(dto.getRoleId());
+        permissionEngine.roleChanged(dto.getRoleId());
         return "操作成功";
     }
 
@@ -157,7 +153,10 @@ public class AdminServiceImpl implements AdminService {
         rolePermissionsService.remove(wrapper);
         
         // 删除角色
-        if (roleService.removeById(id)) {
+        boolean removed = roleService.removeById(id);
+        roleDetailCache.evict(id);
+        permissionEngine.roleChanged(id);
+        if (removed) {
             return "删除成功";
         }
         return "删除失败，请联系管理员";
@@ -173,6 +172,11 @@ public class AdminServiceImpl implements AdminService {
         return usersService.voPage(dto);
     }
 
+    @Override
+    public CursorPage<UserVO> listUserCursor(UserPageDTO dto) {
+        return usersService.voCursor(dto);
+    }
+
     @Override
     public String updateUserRoles(UpdateUserRolesDTO dto) {
         // 根据UUID获取用户ID
@@ -185,26 +189,85 @@ public class AdminServiceImpl implements AdminService {
         }
         
         Integer userId = user.getId();
-        
-        // 删除指定的角色
-        if (!CollectionUtils.isEmpty(dto.getRoleIdsToDelete())) {
-            LambdaQueryWrapper<UserRoles> deleteWrapper = new LambdaQueryWrapper<>();
-            deleteWrapper.eq(UserRoles::getUserId, userId);
-            deleteWrapper.in(UserRoles::getRoleId, dto.getRoleIdsToDelete());
-            userRolesService.remove(deleteWrapper);
+        userRolesService.updateRoles(List.of(userId), dto.getRoleIds(), dto.getRoleIdsToDelete(),
+                UserContext.require().getId());
+        permissionEngine.userChanged(userId);
+
+        return "用户角色更新成功";
+    }
+
+    @Override
+    public BulkUserRolesResult bulkUpdateUserRoles(BulkUpdateUserRolesDTO dto) {
+        // 一次查出全部用户ID
+        Set<String> uuids = new LinkedHashSet<>(dto.getUserUuids());
+        List<User> users = usersService.list(new LambdaQueryWrapper<User>()
+                .select(User::getId, User::getUuid)
+                .in(User::getUuid, uuids));
+        List<Integer> userIds = new ArrayList<>(users.size());
+        for (User user : users) {
+            userIds.add(user.getId());
+            uuids.remove(user.getUuid());
         }
-        
-        // 添加新角色
-        if (!CollectionUtils.isEmpty(dto.getRoleIds())) {
-            List<UserRoles> userRolesList = dto.getRoleIds().stream().map(roleId -> {
-                UserRoles userRoles = new UserRoles();
-                userRoles.setUserId(userId);
-                userRoles.setRoleId(roleId);
-                return userRoles;
-            }).toList();
-            userRolesService.saveOrUpdateBatch(userRolesList);
+
+        BulkUserRolesResult result = userRolesService.updateRoles(userIds, distinct(dto.getRoleIds()),
+                distinct(dto.getRoleIdsToDelete()), UserContext.require().getId());
+        result.setUsers(userIds.size());
+        result.setMissingUuids(new ArrayList<>(uuids));
+        // 事务提交后只发送一条失效通知
+        if (result.getAssigned() > 0 || result.getRevoked() > 0) {
+            permissionEngine.usersChanged(userIds);
         }
-        
-        return "用户角色更新成功";
+        return result;
+    }
+
+    private static List<Integer> distinct(List<Integer> ids) {
+        return ids == null ? null : ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static <T> List<Integer> auditUserIds(Collection<T> rows, Function<T, Integer> createdBy,
+                                                  Function<T, Integer> updatedBy) {
+        List<Integer> ids = new ArrayList<>(rows.size() * 2);
+        for (T row : rows) {
+            ids.add(createdBy.apply(row));
+            ids.add(updatedBy.apply(row));
+        }
+        return ids;
+    }
+
+    /**
+     * 角色及其权限的创建人/修改人ID
+     */
+    private static List<Integer> roleAuditUserIds(Collection<RoleVO> details) {
+        List<Integer> ids = auditUserIds(details, RoleVO::getCreatedById, RoleVO::getUpdatedById);
+        for (RoleVO detail : details) {
+            if (detail.getPermissions() != null) {
+                ids.addAll(auditUserIds(detail.getPermissions(), PermissionVO::getCreatedById,
+                        PermissionVO::getUpdatedById));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 缓存中的角色详情（含权限）是共享对象，复制后再填充昵称
+     */
+    private static RoleVO withNicknames(RoleVO detail, Map<Integer, String> nicknames) {
+        if (detail == null) {
+            return null;
+        }
+        RoleVO vo = new RoleVO();
+        BeanUtils.copyProperties(detail, vo);
+        vo.setCreatedBy(nicknames.get(detail.getCreatedById()));
+        vo.setUpdatedBy(nicknames.get(detail.getUpdatedById()));
+        if (detail.getPermissions() != null) {
+            vo.setPermissions(detail.getPermissions().stream().map(permission -> {
+                PermissionVO copy = new PermissionVO();
+                BeanUtils.copyProperties(permission, copy);
+                copy.setCreatedBy(nicknames.get(permission.getCreatedById()));
+                copy.setUpdatedBy(nicknames.get(permission.getUpdatedById()));
+                return copy;
+            }).toList());
+        }
+        return vo;
     }
 }
@@ -1,6 +1,7 @@
 package org.zhj.devdeck.assembles.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -10,6 +11,9 @@ import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 import org.zhj.devdeck.assembles.UserService;
+import org.zhj.devdeck.cache.SessionCache;
+import org.zhj.devdeck.cache.UserDirectory;
+import org.zhj.devdeck.cache.UserProfileCache;
 import org.zhj.devdeck.constant.RedisConstant;
 import org.zhj.devdeck.dto.RegisterDTO;
 import org.zhj.devdeck.model.User;
@@ -42,6 +46,9 @@ public class UserServiceImpl implements UserService {
     private final VerifyService verifyService;
     private final StringRedisTemplate redisTemplate;
     private final QiniuService qiNiuService;
+    private final SessionCache sessionCache;
+    private final UserProfileCache userProfileCache;
+    private final UserDirectory userDirectory;
 
 
     public boolean existsByEmail(String email) {
@@ -96,6 +103,8 @@ public class UserServiceImpl implements UserService {
         String token = JwtUtils.generateToken(user);
         redisTemplate.opsForValue().set(RedisConstant.TOKEN_PREFIX + user.getId(), token,
                 RedisConstant.TOKEN_EXPIRE, TimeUnit.SECONDS);
+        // 新 token 替换旧 token，通知各节点丢弃本地会话
+        sessionCache.invalidate(user.getId());
         LoginResponse response = new LoginResponse();
         response.setToken(token);
         BeanUtils.copyProperties(user, response);
@@ -117,6 +126,7 @@ public class UserServiceImpl implements UserService {
             String token = JwtUtils.generateToken(user);
             redisTemplate.opsForValue().set(RedisConstant.TOKEN_PREFIX + user.getId(), token,
                     RedisConstant.TOKEN_EXPIRE, TimeUnit.SECONDS);
+            sessionCache.invalidate(user.getId());
             LoginResponse response = new LoginResponse();
             response.setToken(token);
             BeanUtils.copyProperties(user, response);
@@ -132,16 +142,25 @@ public class UserServiceImpl implements UserService {
     @Override
     public void logout(Integer uid) {
         redisTemplate.delete(RedisConstant.TOKEN_PREFIX + uid);
+        sessionCache.invalidate(uid);
     }
 
     @Override
     public void updatePassword(String oldPassword, String newPassword) {
         User user = UserContext.require();
-        if (!user.getPassword().equals(EncryptUtils.encrypt(oldPassword))) {
+        // 上下文中的用户来自节点内缓存，旧密码以数据库为准校验，会话版本在 SQL 中递增，
+        // 并发修改时不会写入相同的版本；已签发的 token 全部失效，需重新登录
+        User update = new User();
+        update.setPassword(EncryptUtils.encrypt(newPassword));
+        int updated = userMapper.update(update, new LambdaUpdateWrapper<User>()
+                .eq(User::getId, user.getId())
+                .eq(User::getPassword, EncryptUtils.encrypt(oldPassword))
+                .setSql("session_version = session_version + 1"));
+        if (updated == 0) {
             throw new QuizException(400, "旧密码错误");
         }
-        user.setPassword(EncryptUtils.encrypt(newPassword));
-        userMapper.updateById(user);
+        userProfileCache.invalidate(user.getId());
+        logout(user.getId());
     }
 
     @Override
@@ -152,10 +171,14 @@ public class UserServiceImpl implements UserService {
     @Override
     public void updateAvatar(User user) {
         userMapper.updateById(user);
+        userProfileCache.invalidate(user.getId());
     }
 
     @Override
     public void updateNickname(User user) {
         userMapper.updateById(user);
+        // 其他节点的用户目录随资料失效消息一并失效
+        userDirectory.evict(user.getId());
+        userProfileCache.invalidate(user.getId());
     }
 }
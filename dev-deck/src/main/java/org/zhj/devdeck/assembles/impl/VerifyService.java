@@ -1,7 +1,5 @@
 package org.zhj.devdeck.assembles.impl;
 
-import cn.hutool.captcha.CaptchaUtil;
-import cn.hutool.captcha.LineCaptcha;
 import com.alibaba.fastjson.JSONObject;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import jakarta.annotation.Resource;
@@ -10,14 +8,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.zhj.devdeck.cache.CaptchaPool;
 import org.zhj.devdeck.constant.RedisConstant;
 import org.zhj.devdeck.dto.CaptchaDTO;
+import org.zhj.devdeck.enums.ResultCode;
 import org.zhj.devdeck.exception.QuizException;
+import org.zhj.devdeck.ratelimit.RateLimitAlgorithm;
+import org.zhj.devdeck.ratelimit.RateLimiter;
 import org.zhj.devdeck.response.CaptchaResponse;
 import org.zhj.devdeck.service.EmailService;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -36,25 +36,31 @@ public class VerifyService {
 
     // 验证码长度
     private static final int CODE_LENGTH = 6;
-    // IP每日最大发送次数
+    // IP每24小时最大发送次数
     private static final int MAX_DAILY_IP_SEND_COUNT = 10;
-    // 单个邮箱每日最大发送次数
+    // 单个邮箱每24小时最大发送次数
     private static final int MAX_DAILY_SEND_COUNT = 10;
     // 验证码有效期（分钟）
     private static final int EXPIRATION_MINUTES = 5;
     // 验证码发送最小间隔（秒）
     private static final int MIN_SEND_INTERVAL_SECONDS = 60;
-    // 请求上限过期时间
-    public static final Integer TTL_SECONDS = 60 * 60 * 24 * 7;
     private final StringRedisTemplate redisTemplate;
     private final EmailService emailService;
+    private final CaptchaPool captchaPool;
+    private final RateLimiter rateLimiter;
 
     public void generateAndSendCode(String email, String captchaUuid, String captchaCode, Integer type , String ip) {
         if (!verifyCaptcha(captchaUuid, captchaCode)) {
             throw new QuizException("验证码错误");
         }
-        Boolean flag = redisTemplate.opsForValue().setIfAbsent(RedisConstant.USER_LIMIT + email, "1", 60, TimeUnit.SECONDS);
-        if (!flag) {
+        // 队列已满时先拒绝，避免白白消耗发送间隔与每日限额
+        if (!emailService.isAvailable()) {
+            throw new QuizException(ResultCode.SERVICE_BUSY.getCode(), "邮件发送繁忙，请稍后重试");
+        }
+        String redisKey = generateRedisKey(type, email);
+        // 每项限制各为一次原子的 Lua 脚本调用；发送间隔用容量为1的令牌桶，两次发送至少间隔一个补充周期
+        if (!rateLimiter.tryAcquire(intervalKey(email), RateLimitAlgorithm.TOKEN_BUCKET,
+                1, TimeUnit.SECONDS.toMillis(MIN_SEND_INTERVAL_SECONDS))) {
             throw new QuizException("验证码发送太频繁，请稍后再试");
         }
         checkIpLimit(ip);
@@ -65,9 +71,32 @@ public class VerifyService {
             code.append(random.nextInt(10));
         }
         long expirationMillis = TimeUnit.MINUTES.toMillis(EXPIRATION_MINUTES);
-        String redisKey = generateRedisKey(type,email);
         redisTemplate.opsForValue().set(redisKey, code.toString(), expirationMillis, TimeUnit.MILLISECONDS);
-        emailService.sendVerificationCode(email, code.toString());
+        try {
+            emailService.sendVerificationCode(email, code.toString());
+        } catch (QuizException e) {
+            // 预检后队列仍可能被并发请求占满：邮件未发出，删除验证码并退还限额，用户可立即重试
+            redisTemplate.delete(redisKey);
+            rateLimiter.refund(intervalKey(email), RateLimitAlgorithm.TOKEN_BUCKET,
+                    1, TimeUnit.SECONDS.toMillis(MIN_SEND_INTERVAL_SECONDS));
+            rateLimiter.refund(ipDailyKey(ip), RateLimitAlgorithm.SLIDING_WINDOW,
+                    MAX_DAILY_IP_SEND_COUNT, TimeUnit.DAYS.toMillis(1));
+            rateLimiter.refund(emailDailyKey(email), RateLimitAlgorithm.SLIDING_WINDOW,
+                    MAX_DAILY_SEND_COUNT, TimeUnit.DAYS.toMillis(1));
+            throw e;
+        }
+    }
+
+    private static String intervalKey(String email) {
+        return "verify-code:interval:" + email;
+    }
+
+    private static String emailDailyKey(String email) {
+        return "verify-code:daily:email:" + email;
+    }
+
+    private static String ipDailyKey(String ip) {
+        return "verify-code:daily:ip:" + ip;
     }
 
     private String generateRedisKey(Integer type, String email) {
@@ -80,38 +109,16 @@ public class VerifyService {
     }
 
     private void checkSendLimit(String email) {
-        String dateKey = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        String redisKey = RedisConstant.USER_LIMIT + dateKey;
-        long currentCount = redisTemplate.opsForHash().increment(
-                redisKey,
-                email,
-                1L
-        );
-        // 首次设置过期时间
-        if (currentCount == 1L) {
-            redisTemplate.expire(RedisConstant.USER_LIMIT + dateKey, TTL_SECONDS, TimeUnit.SECONDS);
-        }
-        if (currentCount > MAX_DAILY_SEND_COUNT) {
-            throw new QuizException("邮箱[" + email + "] 今日请求次数已达上限");
+        if (!rateLimiter.tryAcquire(emailDailyKey(email), RateLimitAlgorithm.SLIDING_WINDOW,
+                MAX_DAILY_SEND_COUNT, TimeUnit.DAYS.toMillis(1))) {
+            throw new QuizException("邮箱[" + email + "] 24小时内请求次数已达上限");
         }
     }
 
     private void checkIpLimit(String ip) {
-        String dateKey = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        String redisKey = RedisConstant.IP_LIMIT + dateKey;
-        // 原子性递增并获取最新值
-        long currentCount = redisTemplate.opsForHash().increment(
-                redisKey,
-                ip,
-                1L
-        );
-        // 处理首次写入设置过期时间
-        if (currentCount == 1) {
-            redisTemplate.expire(redisKey, TTL_SECONDS, TimeUnit.SECONDS);
-        }
-        // 判断是否超过阈值
-        if (currentCount > MAX_DAILY_IP_SEND_COUNT) {
-            throw new QuizException("IP[" + ip + "] 今日请求次数已达上限");
+        if (!rateLimiter.tryAcquire(ipDailyKey(ip), RateLimitAlgorithm.SLIDING_WINDOW,
+                MAX_DAILY_IP_SEND_COUNT, TimeUnit.DAYS.toMillis(1))) {
+            throw new QuizException("IP[" + ip + "] 24小时内请求次数已达上限");
         }
     }
 
@@ -127,13 +134,13 @@ public class VerifyService {
         if (StringUtils.isBlank(uuid)) {
             uuid = UUID.randomUUID().toString();
         }
-        LineCaptcha lineCaptcha = CaptchaUtil.createLineCaptcha(200, 80, 4, 5);
+        // 从预生成池取出，图片渲染不在请求路径上
+        CaptchaPool.Captcha captcha = captchaPool.pop();
         long lastTime = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(MIN_SEND_INTERVAL_SECONDS);
-        CaptchaDTO dto = CaptchaDTO.builder().lastTime(lastTime).code(lineCaptcha.getCode()).build();
+        CaptchaDTO dto = CaptchaDTO.builder().lastTime(lastTime).code(captcha.getCode()).build();
         redisTemplate.opsForValue().set(RedisConstant.BUSINESS_TYPE_REGISTER + RedisConstant.CAPTCHA_PREFIX + uuid,
                 JSONObject.toJSONString(dto), EXPIRATION_MINUTES, TimeUnit.MINUTES);
-        log.info("图形验证码生成成功：{}", lineCaptcha.getCode());
-        return CaptchaResponse.builder().uuid(uuid).imageBase64(lineCaptcha.getImageBase64()).build();
+        return CaptchaResponse.builder().uuid(uuid).imageBase64(captcha.getImageBase64()).build();
     }
 
     public boolean verifyCaptcha(String uuid, String code) {
@@ -0,0 +1,108 @@
+package org.zhj.devdeck.bulkhead;
+
+import lombok.Getter;
+import org.zhj.devdeck.exception.BulkheadRejectedException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 信号量舱壁，限制同时访问某个下游资源的线程数
+ * <p>
+ * 虚拟线程模式下请求线程数不再受 Tomcat 线程池约束，由舱壁把并发压在下游容量之内；
+ * 等待许可超时即快速失败，不让大量线程堆积在连接池队列上。
+ * 同一线程内可重入：已持有许可时再次进入不重复占用，避免嵌套调用自锁。
+ */
+public class Bulkhead {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final Semaphore semaphore;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMillis) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = maxWaitMillis;
+        this.semaphore = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * 获取许可，超时抛出 {@link BulkheadRejectedException}；必须与 {@link #release()} 成对调用
+     */
+    public void acquire() {
+        int[] held = depth.get();
+        if (held[0] > 0) {
+            held[0]++;
+            return;
+        }
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BulkheadRejectedException(name);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadRejectedException(name);
+        }
+        held[0] = 1;
+    }
+
+    public void release() {
+        int[] held = depth.get();
+        if (held[0] == 0) {
+            return;
+        }
+        if (--held[0] == 0) {
+            depth.remove();
+            semaphore.release();
+        }
+    }
+
+    public <T> T call(Supplier<T> supplier) {
+        acquire();
+        try {
+            return supplier.get();
+        } finally {
+            release();
+        }
+    }
+
+    public void run(Runnable runnable) {
+        acquire();
+        try {
+            runnable.run();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * 当前占用的许可数
+     */
+    public int getInUse() {
+        return maxConcurrent - semaphore.availablePermits();
+    }
+
+    /**
+     * 正在等待许可的线程数（估算值）
+     */
+    public int getWaiting() {
+        return semaphore.getQueueLength();
+    }
+
+    /**
+     * 因等待超时被拒绝的累计次数
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
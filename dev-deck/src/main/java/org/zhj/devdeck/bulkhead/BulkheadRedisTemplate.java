@@ -0,0 +1,31 @@
+package org.zhj.devdeck.bulkhead;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 带舱壁的 StringRedisTemplate
+ * <p>
+ * 所有命令、脚本与事务最终都经过 {@link #execute(RedisCallback, boolean, boolean)}，在此占用许可；
+ * 事务/流水线内的嵌套调用由舱壁的可重入处理，不重复占用。
+ */
+public class BulkheadRedisTemplate extends StringRedisTemplate {
+
+    private final Bulkhead bulkhead;
+
+    public BulkheadRedisTemplate(RedisConnectionFactory connectionFactory, Bulkhead bulkhead) {
+        super(connectionFactory);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        bulkhead.acquire();
+        try {
+            return super.execute(action, exposeConnection, pipeline);
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
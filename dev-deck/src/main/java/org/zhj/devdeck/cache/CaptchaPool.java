@@ -0,0 +1,149 @@
+package org.zhj.devdeck.cache;
+
+import cn.hutool.captcha.CaptchaUtil;
+import cn.hutool.captcha.LineCaptcha;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.response.CaptchaPoolStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 图形验证码预生成池
+ * <p>
+ * 后台生产线程持续渲染验证码图片并编码为 Base64，放入定长环形缓冲区（ArrayBlockingQueue），
+ * 池满时生产线程阻塞；请求线程只需弹出一张，不再在请求路径上渲染图片。
+ * 每张验证码只会被取出一次。池被取空时退化为在请求线程现场生成，并计入 misses。
+ * 生产线程数默认取空闲核数（总核数的一半减一，至少一个），并以最低优先级运行。
+ */
+@Slf4j
+@Component
+public class CaptchaPool {
+
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 80;
+    private static final int CODE_COUNT = 4;
+    private static final int LINE_COUNT = 5;
+    private static final int SAMPLE_SECONDS = 10;
+
+    @Value("${captcha.pool.capacity:2000}")
+    private int capacity;
+    @Value("${captcha.pool.producers:0}")
+    private int producerCount;
+
+    private BlockingQueue<Captcha> ring;
+    private final List<Thread> producers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder renderNanos = new LongAdder();
+    private final LongAdder popped = new LongAdder();
+    private final LongAdder popNanos = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long lastProduced;
+    private volatile double refillPerSecond;
+
+    @PostConstruct
+    public void start() {
+        ring = new ArrayBlockingQueue<>(capacity);
+        if (producerCount <= 0) {
+            producerCount = Math.max(1, Runtime.getRuntime().availableProcessors() / 2 - 1);
+        }
+        for (int i = 0; i < producerCount; i++) {
+            Thread producer = new Thread(this::produce, "captcha-producer-" + i);
+            producer.setDaemon(true);
+            producer.setPriority(Thread.MIN_PRIORITY);
+            producer.start();
+            producers.add(producer);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        producers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * 取出一张验证码，池为空时现场生成
+     */
+    public Captcha pop() {
+        long start = System.nanoTime();
+        Captcha captcha = ring.poll();
+        if (captcha == null) {
+            misses.increment();
+            captcha = render();
+        }
+        popped.increment();
+        popNanos.add(System.nanoTime() - start);
+        return captcha;
+    }
+
+    /**
+     * 按采样周期计算补充速率
+     */
+    @Scheduled(initialDelay = SAMPLE_SECONDS, fixedDelay = SAMPLE_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void sample() {
+        long current = produced.sum();
+        refillPerSecond = (double) (current - lastProduced) / SAMPLE_SECONDS;
+        lastProduced = current;
+    }
+
+    public CaptchaPoolStatus status() {
+        CaptchaPoolStatus status = new CaptchaPoolStatus();
+        status.setProducers(producers.size());
+        status.setDepth(ring.size());
+        status.setCapacity(capacity);
+        long producedCount = produced.sum();
+        status.setProduced(producedCount);
+        status.setRefillPerSecond(refillPerSecond);
+        status.setAvgRenderMillis(producedCount == 0 ? 0 : renderNanos.sum() / 1e6 / producedCount);
+        long poppedCount = popped.sum();
+        status.setPopped(poppedCount);
+        status.setMisses(misses.sum());
+        status.setAvgPopMicros(poppedCount == 0 ? 0 : popNanos.sum() / 1e3 / poppedCount);
+        return status;
+    }
+
+    private void produce() {
+        while (running) {
+            try {
+                long start = System.nanoTime();
+                Captcha captcha = render();
+                renderNanos.add(System.nanoTime() - start);
+                produced.increment();
+                ring.put(captcha);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("验证码预生成失败", e);
+            }
+        }
+    }
+
+    private static Captcha render() {
+        LineCaptcha lineCaptcha = CaptchaUtil.createLineCaptcha(WIDTH, HEIGHT, CODE_COUNT, LINE_COUNT);
+        return new Captcha(lineCaptcha.getCode(), lineCaptcha.getImageBase64());
+    }
+
+    /**
+     * 预生成的验证码，不可变
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Captcha {
+        private final String code;
+        private final String imageBase64;
+    }
+}
@@ -0,0 +1,154 @@
+package org.zhj.devdeck.cache;
+
+import com.alibaba.fastjson.JSONObject;
+import org.springframework.util.DigestUtils;
+import org.zhj.devdeck.model.Category;
+import org.zhj.devdeck.vo.CategoryVO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 分类树快照
+ * <p>
+ * 由全量分类一次线性遍历构建，构建完成后不再修改，分类变更时整体替换。
+ * ETag 取树内容的摘要，各节点对相同数据得到相同的 ETag。
+ */
+public final class CategoryTree {
+
+    private static final String ENABLED = "Y";
+
+    private final List<CategoryVO> tree;
+    private final List<CategoryVO> enabledTree;
+    private final String treeEtag;
+    private final String enabledTreeEtag;
+    private final Map<Integer, String> names;
+    private final Map<Integer, List<Integer>> childIds;
+
+    private CategoryTree(List<Category> categories) {
+        // 调用方已按排序权重排序
+        this.tree = build(categories);
+        this.enabledTree = build(categories.stream()
+                .filter(category -> ENABLED.equals(category.getIsEnabled()))
+                .toList());
+        this.treeEtag = etagOf(tree);
+        this.enabledTreeEtag = etagOf(enabledTree);
+
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, List<Integer>> childIds = new HashMap<>();
+        for (Category category : categories) {
+            names.put(category.getId(), category.getName());
+            if (category.getParentId() != null) {
+                childIds.computeIfAbsent(category.getParentId(), k -> new ArrayList<>()).add(category.getId());
+            }
+        }
+        this.names = Map.copyOf(names);
+        this.childIds = Map.copyOf(childIds);
+    }
+
+    public static CategoryTree of(List<Category> categories) {
+        return new CategoryTree(categories);
+    }
+
+    public List<CategoryVO> getTree() {
+        return tree;
+    }
+
+    public List<CategoryVO> getEnabledTree() {
+        return enabledTree;
+    }
+
+    public String getTreeEtag() {
+        return treeEtag;
+    }
+
+    public String getEnabledTreeEtag() {
+        return enabledTreeEtag;
+    }
+
+    /**
+     * 批量获取分类名称，不存在的ID不出现在结果中
+     */
+    public Map<Integer, String> getNames(Collection<Integer> ids) {
+        Map<Integer, String> result = new HashMap<>();
+        for (Integer id : ids) {
+            String name = id == null ? null : names.get(id);
+            if (name != null) {
+                result.put(id, name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 分类及其所有子孙分类的ID
+     */
+    public Set<Integer> getSelfAndDescendantIds(Integer categoryId) {
+        Set<Integer> result = new HashSet<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(categoryId);
+        while (!queue.isEmpty()) {
+            Integer id = queue.poll();
+            if (result.add(id)) {
+                queue.addAll(childIds.getOrDefault(id, List.of()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 两次线性遍历：先建节点索引，再挂到父节点下；父节点不在列表中的分类被忽略
+     */
+    private static List<CategoryVO> build(List<Category> categories) {
+        Map<Integer, CategoryVO> nodes = new HashMap<>(categories.size() * 2);
+        Map<Integer, List<CategoryVO>> children = new HashMap<>(categories.size() * 2);
+        for (Category category : categories) {
+            nodes.put(category.getId(), toVO(category));
+            children.put(category.getId(), new ArrayList<>());
+        }
+
+        List<CategoryVO> roots = new ArrayList<>();
+        for (Category category : categories) {
+            CategoryVO vo = nodes.get(category.getId());
+            Integer parentId = category.getParentId();
+            if (parentId == null || parentId == 0) {
+                roots.add(vo);
+            } else if (children.containsKey(parentId)) {
+                children.get(parentId).add(vo);
+            }
+        }
+        for (Map.Entry<Integer, CategoryVO> entry : nodes.entrySet()) {
+            entry.getValue().setChildren(List.copyOf(children.get(entry.getKey())));
+        }
+        return List.copyOf(roots);
+    }
+
+    private static CategoryVO toVO(Category category) {
+        CategoryVO vo = new CategoryVO();
+        vo.setId(category.getId());
+        vo.setName(category.getName());
+        vo.setSlug(category.getSlug());
+        vo.setParentId(category.getParentId());
+        vo.setSortWeight(category.getSortWeight());
+        vo.setDescription(category.getDescription());
+        vo.setIcon(category.getIcon());
+        vo.setIsEnabled(category.getIsEnabled());
+        vo.setCreatedAt(category.getCreatedAt());
+        vo.setUpdatedAt(category.getUpdatedAt());
+        return vo;
+    }
+
+    private static String etagOf(List<CategoryVO> tree) {
+        byte[] json = JSONObject.toJSONString(tree).getBytes(StandardCharsets.UTF_8);
+        return "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+}
@@ -0,0 +1,82 @@
+package org.zhj.devdeck.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 合并并发未命中、且不在锁内回源的本地缓存
+ * <p>
+ * Caffeine 同步缓存的 get(key, loader) 在 ConcurrentHashMap.compute 的 synchronized 桶锁内执行 loader，
+ * 回源访问数据库或 Redis 时会钉住虚拟线程的载体线程。这里改用 AsyncCache：compute 内只放入一个占位 future，
+ * 由首个未命中的调用方在锁外、在自己的线程上回源并完成它，同键的并发调用方等待该 future（等待不钉住载体线程）。
+ * 回源期间条目被失效时，Caffeine 丢弃迟到的结果，不会写回旧值；回源返回 null 或抛出异常时不缓存。
+ */
+public final class CoalescingCache<K, V> {
+
+    private final AsyncCache<K, V> cache;
+
+    public CoalescingCache(Caffeine<Object, Object> builder) {
+        this.cache = builder.buildAsync();
+    }
+
+    /**
+     * 读取缓存，未命中时由当前线程调用 loader 回源
+     *
+     * @param loader 回源函数，返回 null 表示不存在（不缓存）
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> placeholder = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> placeholder);
+        if (future != placeholder) {
+            return join(future);
+        }
+        try {
+            V value = loader.apply(key);
+            placeholder.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            placeholder.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public void invalidateAll(Iterable<? extends K> keys) {
+        cache.synchronous().invalidateAll(keys);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // 还原回源抛出的原始异常（如业务异常），交给调用方的异常处理
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.zhj.devdeck.cache;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.mapper.QuestionMapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 题目收藏数计数器，每5秒批量写回 favorite_count
+ * <p>
+ * 只有收藏记录实际发生变化（新增/恢复/软删除）时才累加，调用方保证题目存在。
+ */
+@Component
+public class FavoriteCounter extends QuestionCounter {
+
+    public FavoriteCounter(QuestionMapper questionMapper, QuestionDetailCache questionDetailCache) {
+        super("favorite_count", questionMapper, questionDetailCache);
+    }
+
+    public void add(Integer questionId, int delta) {
+        register(questionId).add(delta);
+    }
+
+    @Override
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public void flush() {
+        super.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
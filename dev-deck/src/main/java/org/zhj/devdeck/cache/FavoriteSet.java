@@ -0,0 +1,163 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.mapper.QuestionFavoriteMapper;
+import org.zhj.devdeck.model.QuestionFavorite;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户收藏集合
+ * <p>
+ * 每个用户的已收藏题目ID保存在一个 Redis Set 中，批量判断收藏状态只需一次 SMISMEMBER。
+ * 集合按需从数据库加载，并用哨兵成员标记“已完整加载”；收藏、取消收藏时同步增删成员。
+ * 加载前先写入本次加载的令牌，集合未加载期间发生的收藏变更会删除令牌，
+ * 加载结果只在令牌未变时写入，避免查询与写入之间的变更丢失。
+ * Redis 不可用时回退为数据库查询。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FavoriteSet {
+
+    // 题目ID从1开始，0 作为已加载标记
+    private static final String LOADED = "0";
+
+    private static final String LOADING_SUFFIX = ":loading";
+    private static final long LOADING_EXPIRE = 30;
+    // 每条 SADD 携带的成员数，避免超出 Lua unpack 的栈限制
+    private static final int LOAD_BATCH = 1000;
+
+    // 集合已完整加载时增删成员；否则删除加载令牌，使进行中的加载放弃写入
+    private static final RedisScript<Long> UPDATE_IF_LOADED = new DefaultRedisScript<>(
+            "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then "
+                    + "return redis.call(ARGV[2], KEYS[1], ARGV[3]) end "
+                    + "redis.call('DEL', KEYS[2]) return 0", Long.class);
+
+    // 加载令牌未变时才替换集合；ARGV[1] 为令牌，ARGV[2] 为过期秒数，其后为成员
+    private static final RedisScript<Long> LOAD_IF_UNCHANGED = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[2]) ~= ARGV[1] then return 0 end "
+                    + "redis.call('DEL', KEYS[1], KEYS[2]) "
+                    + "for i = 3, #ARGV, " + LOAD_BATCH + " do "
+                    + "redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + " + (LOAD_BATCH - 1) + ", #ARGV))) end "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final QuestionFavoriteMapper questionFavoriteMapper;
+
+    /**
+     * 批量判断收藏状态，结果与 questionIds 一一对应
+     */
+    public List<Boolean> contains(Integer userId, List<Integer> questionIds) {
+        String key = RedisConstant.FAVORITE_PREFIX + userId;
+        Object[] members = new Object[questionIds.size() + 1];
+        members[0] = LOADED;
+        for (int i = 0; i < questionIds.size(); i++) {
+            members[i + 1] = String.valueOf(questionIds.get(i));
+        }
+        try {
+            Map<Object, Boolean> result = redisTemplate.opsForSet().isMember(key, members);
+            if (result == null || !Boolean.TRUE.equals(result.get(LOADED))) {
+                return fromIds(questionIds, load(userId));
+            }
+            List<Boolean> statuses = new ArrayList<>(questionIds.size());
+            for (int i = 1; i < members.length; i++) {
+                statuses.add(Boolean.TRUE.equals(result.get(members[i])));
+            }
+            return statuses;
+        } catch (DataAccessException e) {
+            log.warn("读取收藏集合失败，回退数据库查询：userId={}", userId, e);
+            return fromIds(questionIds, queryIds(userId, questionIds));
+        }
+    }
+
+    /**
+     * 收藏成功后加入集合（集合未加载时跳过，由下次读取整体加载）
+     */
+    public void add(Integer userId, Integer questionId) {
+        update(userId, "SADD", questionId);
+    }
+
+    /**
+     * 取消收藏后移出集合
+     */
+    public void remove(Integer userId, Integer questionId) {
+        update(userId, "SREM", questionId);
+    }
+
+    private void update(Integer userId, String command, Integer questionId) {
+        try {
+            String key = RedisConstant.FAVORITE_PREFIX + userId;
+            redisTemplate.execute(UPDATE_IF_LOADED, List.of(key, key + LOADING_SUFFIX),
+                    LOADED, command, String.valueOf(questionId));
+        } catch (DataAccessException e) {
+            // 更新失败时删除集合，避免残留过期数据
+            evict(userId);
+        }
+    }
+
+    private void evict(Integer userId) {
+        try {
+            String key = RedisConstant.FAVORITE_PREFIX + userId;
+            redisTemplate.delete(List.of(key, key + LOADING_SUFFIX));
+        } catch (DataAccessException e) {
+            log.warn("删除收藏集合失败：userId={}", userId, e);
+        }
+    }
+
+    /**
+     * 从数据库全量加载并原子替换集合；加载期间有收藏变更时不写入，由下次读取重新加载
+     */
+    private Set<Integer> load(Integer userId) {
+        String key = RedisConstant.FAVORITE_PREFIX + userId;
+        String loadingKey = key + LOADING_SUFFIX;
+        // 令牌须在查询数据库之前写入，之后提交的变更才能使本次加载失效
+        String token = UUID.randomUUID().toString();
+        redisTemplate.opsForValue().set(loadingKey, token, LOADING_EXPIRE, TimeUnit.SECONDS);
+        Set<Integer> ids = queryIds(userId, null);
+        Object[] args = new Object[ids.size() + 3];
+        args[0] = token;
+        args[1] = String.valueOf(RedisConstant.FAVORITE_EXPIRE);
+        args[2] = LOADED;
+        int i = 3;
+        for (Integer id : ids) {
+            args[i++] = String.valueOf(id);
+        }
+        redisTemplate.execute(LOAD_IF_UNCHANGED, List.of(key, loadingKey), args);
+        return ids;
+    }
+
+    private Set<Integer> queryIds(Integer userId, List<Integer> questionIds) {
+        LambdaQueryWrapper<QuestionFavorite> wrapper = new LambdaQueryWrapper<QuestionFavorite>()
+                .select(QuestionFavorite::getQuestionId)
+                .eq(QuestionFavorite::getUserId, userId)
+                .in(questionIds != null, QuestionFavorite::getQuestionId, questionIds);
+        Set<Integer> ids = new HashSet<>();
+        for (QuestionFavorite favorite : questionFavoriteMapper.selectList(wrapper)) {
+            ids.add(favorite.getQuestionId());
+        }
+        return ids;
+    }
+
+    private static List<Boolean> fromIds(List<Integer> questionIds, Set<Integer> favorited) {
+        List<Boolean> statuses = new ArrayList<>(questionIds.size());
+        for (Integer id : questionIds) {
+            statuses.add(favorited.contains(id));
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,302 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.assembles.enums.RoleEnum;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.mapper.PermissionMapper;
+import org.zhj.devdeck.mapper.RolePermissionsMapper;
+import org.zhj.devdeck.mapper.UserRolesMapper;
+import org.zhj.devdeck.model.Permission;
+import org.zhj.devdeck.model.RolePermissions;
+import org.zhj.devdeck.model.UserRoles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 内存权限模型
+ * <p>
+ * 每个权限编码分配一个位，角色→权限编译为 BitSet；用户的角色列表写入后最多缓存5分钟，
+ * 有效权限为其角色位图的并集，并按模型版本惰性重算。校验权限时不访问数据库。
+ * 角色权限变更时只重载该角色，用户角色变更时只失效该用户，并通过 Redis 发布订阅同步到所有节点；
+ * 消息丢失时，角色位图由每5分钟一次的全量重建兜底，用户的角色列表由写入后过期兜底。系统管理员拥有全部权限。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionEngine implements MessageListener {
+
+    // 按写入时间过期：活跃用户的角色列表也会定期重新查询，不会因持续访问而一直沿用旧值
+    private static final Duration GRANT_EXPIRE = Duration.ofMinutes(5);
+    private static final int GRANT_MAX_SIZE = 100_000;
+    public static final String ROLE_MESSAGE = "role:";
+    private static final String USER_MESSAGE = "user:";
+    private static final String ALL_USERS = "*";
+    // 单条通知最多携带的用户数，超过时让所有节点失效全部用户的权限
+    private static final int USERS_PER_MESSAGE = 1000;
+
+    private final PermissionMapper permissionMapper;
+    private final RolePermissionsMapper rolePermissionsMapper;
+    private final UserRolesMapper userRolesMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // 当前模型，变更时整体替换
+    private volatile Model model;
+    // 重建期间会访问数据库，不用 synchronized 以免钉住虚拟线程的载体线程
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // 未命中时查询用户角色，在锁外回源，不钉住虚拟线程的载体线程
+    private final CoalescingCache<Integer, Grant> grants = new CoalescingCache<>(Caffeine.newBuilder()
+            .maximumSize(GRANT_MAX_SIZE)
+            .expireAfterWrite(GRANT_EXPIRE));
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.PERMISSION_INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 用户是否拥有该权限编码
+     */
+    public boolean hasPermission(Integer userId, String code) {
+        Grant grant = grants.get(userId, this::loadGrant);
+        if (grant.superuser) {
+            return true;
+        }
+        Model current = getModel();
+        Integer bit = current.bitOfCode.get(code);
+        return bit != null && grant.effective(current).get(bit);
+    }
+
+    /**
+     * 角色的权限绑定变更（含删除角色）后调用，所有节点重载该角色
+     */
+    public void roleChanged(Integer roleId) {
+        reloadRole(roleId);
+        publish(ROLE_MESSAGE + roleId);
+    }
+
+    /**
+     * 用户的角色变更后调用，所有节点失效该用户的权限
+     */
+    public void userChanged(Integer userId) {
+        grants.invalidate(userId);
+        publish(USER_MESSAGE + userId);
+    }
+
+    /**
+     * 批量变更用户角色后调用，只发送一条通知
+     */
+    public void usersChanged(Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (userIds.size() > USERS_PER_MESSAGE) {
+            grants.invalidateAll();
+            publish(USER_MESSAGE + ALL_USERS);
+            return;
+        }
+        grants.invalidateAll(userIds);
+        publish(USER_MESSAGE + userIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * 全量重建模型；定时执行以兜底其他节点的变更
+     */
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public Model reload() {
+        reloadLock.lock();
+        try {
+            List<Permission> permissions = permissionMapper.selectList(new LambdaQueryWrapper<Permission>()
+                    .select(Permission::getId, Permission::getCode));
+            // 编码相同的权限共用一位
+            Map<String, Integer> bitOfCode = new HashMap<>();
+            Map<Integer, Integer> bitOfId = new HashMap<>();
+            for (Permission permission : permissions) {
+                if (permission.getCode() != null) {
+                    bitOfId.put(permission.getId(), bitOfCode.computeIfAbsent(permission.getCode(), k -> bitOfCode.size()));
+                }
+            }
+            List<RolePermissions> bindings = rolePermissionsMapper.selectList(new LambdaQueryWrapper<RolePermissions>()
+                    .select(RolePermissions::getRoleId, RolePermissions::getPermissionId));
+            Map<Integer, BitSet> roles = new HashMap<>();
+            for (RolePermissions binding : bindings) {
+                Integer bit = bitOfId.get(binding.getPermissionId());
+                if (bit != null) {
+                    roles.computeIfAbsent(binding.getRoleId(), k -> new BitSet(bitOfCode.size())).set(bit);
+                }
+            }
+            Model current = model;
+            Model fresh = new Model(current == null ? 1 : current.version + 1, bitOfCode, bitOfId, roles);
+            model = fresh;
+            return fresh;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * 只重载单个角色的位图；引用了模型中没有的权限（新建的权限）时退化为全量重建
+     */
+    private void reloadRole(Integer roleId) {
+        reloadLock.lock();
+        try {
+            Model current = getModel();
+            List<RolePermissions> bindings = rolePermissionsMapper.selectList(new LambdaQueryWrapper<RolePermissions>()
+                    .select(RolePermissions::getPermissionId)
+                    .eq(RolePermissions::getRoleId, roleId));
+            BitSet bits = new BitSet(current.bitOfCode.size());
+            for (RolePermissions binding : bindings) {
+                Integer bit = current.bitOfId.get(binding.getPermissionId());
+                if (bit == null) {
+                    reload();
+                    return;
+                }
+                bits.set(bit);
+            }
+            Map<Integer, BitSet> roles = new HashMap<>(current.roles);
+            if (bits.isEmpty()) {
+                roles.remove(roleId);
+            } else {
+                roles.put(roleId, bits);
+            }
+            model = new Model(current.version + 1, current.bitOfCode, current.bitOfId, roles);
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Model getModel() {
+        Model current = model;
+        return current != null ? current : reload();
+    }
+
+    private Grant loadGrant(Integer userId) {
+        int[] roleIds = userRolesMapper.selectList(new LambdaQueryWrapper<UserRoles>()
+                        .select(UserRoles::getRoleId)
+                        .eq(UserRoles::getUserId, userId))
+                .stream()
+                .mapToInt(UserRoles::getRoleId)
+                .distinct()
+                .toArray();
+        return new Grant(roleIds);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(RedisConstant.PERMISSION_INVALIDATE_CHANNEL, message);
+        } catch (Exception e) {
+            // 其他节点依赖定时全量重建与权限缓存过期兜底
+            log.warn("权限变更通知发送失败：{}", message, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (body.startsWith(ROLE_MESSAGE)) {
+                reloadRole(Integer.valueOf(body.substring(ROLE_MESSAGE.length())));
+            } else if (body.startsWith(USER_MESSAGE)) {
+                invalidateUsers(body.substring(USER_MESSAGE.length()));
+            } else {
+                log.warn("忽略非法的权限变更消息：{}", body);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("忽略非法的权限变更消息：{}", body);
+        }
+    }
+
+    private void invalidateUsers(String userIds) {
+        if (ALL_USERS.equals(userIds)) {
+            grants.invalidateAll();
+            return;
+        }
+        for (String userId : userIds.split(",")) {
+            grants.invalidate(Integer.valueOf(userId));
+        }
+    }
+
+    /**
+     * 编译后的权限模型，不可变
+     */
+    public static final class Model {
+        private final long version;
+        private final Map<String, Integer> bitOfCode;
+        private final Map<Integer, Integer> bitOfId;
+        private final Map<Integer, BitSet> roles;
+
+        private Model(long version, Map<String, Integer> bitOfCode, Map<Integer, Integer> bitOfId,
+                      Map<Integer, BitSet> roles) {
+            this.version = version;
+            this.bitOfCode = bitOfCode;
+            this.bitOfId = bitOfId;
+            this.roles = roles;
+        }
+    }
+
+    /**
+     * 用户的角色及按模型版本缓存的有效权限
+     */
+    private static final class Grant {
+        private final int[] roleIds;
+        private final boolean superuser;
+        private volatile Effective effective;
+
+        private Grant(int[] roleIds) {
+            this.roleIds = roleIds;
+            boolean admin = false;
+            for (int roleId : roleIds) {
+                admin |= roleId == RoleEnum.SYSTEM_ADMIN.getCode();
+            }
+            this.superuser = admin;
+        }
+
+        private BitSet effective(Model model) {
+            Effective current = effective;
+            if (current == null || current.version != model.version) {
+                // 并发重算结果相同，无需加锁
+                BitSet bits = new BitSet(model.bitOfCode.size());
+                for (int roleId : roleIds) {
+                    BitSet roleBits = model.roles.get(roleId);
+                    if (roleBits != null) {
+                        bits.or(roleBits);
+                    }
+                }
+                current = new Effective(model.version, bits);
+                effective = current;
+            }
+            return current.bits;
+        }
+    }
+
+    private static final class Effective {
+        private final long version;
+        private final BitSet bits;
+
+        private Effective(long version, BitSet bits) {
+            this.version = version;
+            this.bits = bits;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.zhj.devdeck.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.zhj.devdeck.mapper.QuestionMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 题目计数列的写后合并基类
+ * <p>
+ * 增量累加在内存中按题目分条的 LongAdder，不触碰数据库行锁；
+ * 子类定时调用 {@link #flush()}，通过一条批量 UPDATE 写回（column = column + d）。
+ * 读取时用数据库中的已持久化值加上本节点尚未落库的增量；写回后失效对应的题目详情缓存。
+ */
+@Slf4j
+public abstract class QuestionCounter {
+
+    // 单条 UPDATE 最多携带的题目数，避免 SQL 过长
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final String column;
+    private final QuestionMapper questionMapper;
+    private final QuestionDetailCache questionDetailCache;
+
+    private final Map<Integer, LongAdder> pending = new ConcurrentHashMap<>();
+
+    protected QuestionCounter(String column, QuestionMapper questionMapper, QuestionDetailCache questionDetailCache) {
+        this.column = column;
+        this.questionMapper = questionMapper;
+        this.questionDetailCache = questionDetailCache;
+    }
+
+    /**
+     * 本节点尚未落库的增量
+     */
+    public long pending(Integer questionId) {
+        LongAdder adder = pending.get(questionId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 合并已持久化值与未落库增量
+     */
+    public Integer merge(Integer questionId, Integer persisted) {
+        long delta = pending(questionId);
+        if (delta == 0) {
+            return persisted;
+        }
+        return (int) ((persisted == null ? 0 : persisted) + delta);
+    }
+
+    /**
+     * 题目删除后丢弃其计数
+     */
+    public void discard(Integer questionId) {
+        pending.remove(questionId);
+    }
+
+    /**
+     * 已登记题目的计数器，未登记时返回 null
+     */
+    protected LongAdder adderOf(Integer questionId) {
+        return pending.get(questionId);
+    }
+
+    /**
+     * 登记并返回题目的计数器
+     */
+    protected LongAdder register(Integer questionId) {
+        return pending.computeIfAbsent(questionId, k -> new LongAdder());
+    }
+
+    /**
+     * 批量写回增量
+     */
+    public void flush() {
+        List<Map<String, Object>> batch = new ArrayList<>();
+        List<LongAdder> adders = new ArrayList<>();
+        for (Map.Entry<Integer, LongAdder> entry : pending.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long delta = adder.sum();
+            if (delta == 0) {
+                continue;
+            }
+            // 先扣减再落库：扣减期间的新增量保留在 adder 中，不会丢失
+            adder.add(-delta);
+            batch.add(Map.of("id", entry.getKey(), "delta", delta));
+            adders.add(adder);
+            if (batch.size() == FLUSH_BATCH_SIZE) {
+                write(batch, adders);
+                batch = new ArrayList<>();
+                adders = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, adders);
+        }
+    }
+
+    private void write(List<Map<String, Object>> batch, List<LongAdder> adders) {
+        try {
+            questionMapper.incrementCounts(column, batch);
+        } catch (Exception e) {
+            // 写回失败时把增量还给计数器，等待下一轮重试
+            for (int i = 0; i < batch.size(); i++) {
+                adders.get(i).add((Long) batch.get(i).get("delta"));
+            }
+            log.error("{}写回失败，{}个题目的增量将在下一轮重试", column, batch.size(), e);
+            return;
+        }
+        // 详情缓存中保存的是已落库的次数，写回后需失效
+        questionDetailCache.evictAll(batch.stream().map(item -> (Integer) item.get("id")).toList());
+    }
+}
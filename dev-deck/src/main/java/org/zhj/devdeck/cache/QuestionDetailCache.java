@@ -0,0 +1,178 @@
+package org.zhj.devdeck.cache;
+
+import com.alibaba.fastjson.JSONObject;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.response.CacheStatus;
+import org.zhj.devdeck.vo.QuestionVO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 题目详情两级缓存
+ * <p>
+ * 一级为进程内 Caffeine（W-TinyLFU 淘汰，按条数限制内存），二级为 Redis，缓存组装好的 QuestionVO。
+ * 写操作删除两级缓存；其他节点的一级缓存依靠较短的过期时间收敛。
+ * 同一题目并发未命中时合并为一次回源，回源在缓存锁外执行（见 {@link CoalescingCache}）。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuestionDetailCache {
+
+    private static final int LOCAL_MAX_SIZE = 10_000;
+    private static final Duration LOCAL_EXPIRE = Duration.ofSeconds(60);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final CoalescingCache<Integer, QuestionVO> details = new CoalescingCache<>(Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterWrite(LOCAL_EXPIRE)
+            .recordStats());
+
+    // slug -> 题目ID
+    private final CoalescingCache<String, Integer> slugIds = new CoalescingCache<>(Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterWrite(LOCAL_EXPIRE));
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * 按ID读取，两级均未命中时调用 loader 回源
+     *
+     * @param loader 回源函数，题目不存在时返回 null（不缓存）
+     */
+    public QuestionVO get(Integer id, Function<Integer, QuestionVO> loader) {
+        if (id == null) {
+            return null;
+        }
+        return details.get(id, key -> {
+            QuestionVO vo = readRedis(key);
+            if (vo != null) {
+                redisHits.increment();
+                return vo;
+            }
+            redisMisses.increment();
+            loads.increment();
+            vo = loader.apply(key);
+            if (vo != null) {
+                writeRedis(RedisConstant.QUESTION_DETAIL_PREFIX + key, JSONObject.toJSONString(vo));
+            }
+            return vo;
+        });
+    }
+
+    /**
+     * 将 slug 解析为题目ID
+     *
+     * @param resolver 回源函数，slug 不存在时返回 null（不缓存）
+     */
+    public Integer resolveSlug(String slug, Function<String, Integer> resolver) {
+        if (slug == null) {
+            return null;
+        }
+        return slugIds.get(slug, key -> {
+            String cached = readRedisValue(RedisConstant.QUESTION_SLUG_PREFIX + key);
+            if (cached != null) {
+                return Integer.valueOf(cached);
+            }
+            Integer id = resolver.apply(key);
+            if (id != null) {
+                writeRedis(RedisConstant.QUESTION_SLUG_PREFIX + key, id.toString());
+            }
+            return id;
+        });
+    }
+
+    /**
+     * 题目更新或删除后失效缓存
+     *
+     * @param slugs 需要一并失效的 slug（如更新前后的 slug）
+     */
+    public void evict(Integer id, String... slugs) {
+        List<String> keys = new ArrayList<>();
+        if (id != null) {
+            details.invalidate(id);
+            keys.add(RedisConstant.QUESTION_DETAIL_PREFIX + id);
+        }
+        for (String slug : slugs) {
+            if (slug != null) {
+                slugIds.invalidate(slug);
+                keys.add(RedisConstant.QUESTION_SLUG_PREFIX + slug);
+            }
+        }
+        deleteRedis(keys);
+    }
+
+    /**
+     * 批量失效题目详情（提交次数写回后调用）
+     */
+    public void evictAll(Collection<Integer> ids) {
+        details.invalidateAll(ids);
+        deleteRedis(ids.stream().map(id -> RedisConstant.QUESTION_DETAIL_PREFIX + id).toList());
+    }
+
+    public CacheStatus status() {
+        CacheStats stats = details.stats();
+        CacheStatus status = new CacheStatus();
+        status.setName("questionDetail");
+        status.setLocalSize(details.estimatedSize());
+        status.setLocalHits(stats.hitCount());
+        status.setLocalMisses(stats.missCount());
+        status.setLocalEvictions(stats.evictionCount());
+        status.setRedisHits(redisHits.sum());
+        status.setRedisMisses(redisMisses.sum());
+        status.setLoads(loads.sum());
+        long requests = stats.requestCount();
+        status.setHitRate(requests == 0 ? 0 : (double) (requests - loads.sum()) / requests);
+        return status;
+    }
+
+    // Redis 不可用时降级为只用本地缓存 + 数据库
+
+    private QuestionVO readRedis(Integer id) {
+        String json = readRedisValue(RedisConstant.QUESTION_DETAIL_PREFIX + id);
+        return json == null ? null : JSONObject.parseObject(json, QuestionVO.class);
+    }
+
+    private String readRedisValue(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("读取题目缓存失败：{}", key, e);
+            return null;
+        }
+    }
+
+    private void writeRedis(String key, String value) {
+        try {
+            redisTemplate.opsForValue().set(key, value, RedisConstant.QUESTION_DETAIL_EXPIRE, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入题目缓存失败：{}", key, e);
+        }
+    }
+
+    private void deleteRedis(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.warn("删除题目缓存失败：{}", keys, e);
+        }
+    }
+}
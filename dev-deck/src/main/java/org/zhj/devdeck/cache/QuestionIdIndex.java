@@ -0,0 +1,331 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.mapper.QuestionMapper;
+import org.zhj.devdeck.model.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 启用题目ID内存索引
+ * <p>
+ * 按 (分类, 难度, 题型) 分桶保存启用题目的ID（原始 int 数组），并记录每个ID所在的槽位，
+ * 题目增删改时 O(1) 增量维护。随机抽题在内存中做部分 Fisher-Yates 洗牌，抽取 k 道题为 O(k)，与题库大小无关。
+ * 其他节点的写入通过定时全量重建收敛；重建期间在锁外查询数据库，期间的增量写入记入日志，换入新快照前重放。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuestionIdIndex {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+
+    private final QuestionMapper questionMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 加载/重建锁，同一时刻只有一次重建；加载期间会访问数据库，不用 synchronized 以免钉住虚拟线程的载体线程
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private Snapshot snapshot = new Snapshot();
+    // 重建期间的增量写入，受写锁保护；不在重建时为 null
+    private List<Write> journal;
+    private volatile boolean loaded = false;
+    private volatile boolean rebuilding = false;
+
+    /**
+     * 从所有启用题目中随机抽取
+     */
+    public List<Integer> sample(int count) {
+        return sample(null, null, null, count, Set.of());
+    }
+
+    /**
+     * 按条件随机抽取不重复的题目ID
+     *
+     * @param categoryIds 分类ID集合，为空表示不限
+     * @param difficulty  难度，为空表示不限
+     * @param type        题型，为空表示不限
+     * @param count       抽取数量
+     * @param excludeIds  需要排除的题目ID
+     * @return 抽取结果，可能少于 count
+     */
+    public List<Integer> sample(Collection<Integer> categoryIds, Integer difficulty, Integer type,
+                                int count, Set<Integer> excludeIds) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            // 收集符合条件的桶，按前缀和拼接成虚拟数组
+            List<Bucket> matched = new ArrayList<>();
+            for (Map.Entry<Long, Bucket> entry : snapshot.buckets.entrySet()) {
+                long key = entry.getKey();
+                if (categoryIds != null && !categoryIds.contains(categoryOf(key))) {
+                    continue;
+                }
+                if (difficulty != null && difficulty != difficultyOf(key)) {
+                    continue;
+                }
+                if (type != null && type != typeOf(key)) {
+                    continue;
+                }
+                if (entry.getValue().size > 0) {
+                    matched.add(entry.getValue());
+                }
+            }
+            int[] offsets = new int[matched.size() + 1];
+            for (int i = 0; i < matched.size(); i++) {
+                offsets[i + 1] = offsets[i] + matched.get(i).size;
+            }
+            int total = offsets[matched.size()];
+
+            // 部分 Fisher-Yates：只记录被交换过的位置，不复制数组
+            List<Integer> result = new ArrayList<>(Math.min(count, total));
+            Map<Integer, Integer> swapped = new HashMap<>();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < total && result.size() < count; i++) {
+                int j = i + random.nextInt(total - i);
+                int picked = swapped.getOrDefault(j, j);
+                swapped.put(j, swapped.getOrDefault(i, i));
+                int id = idAt(matched, offsets, picked);
+                if (!excludeIds.contains(id)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或更新题目后维护索引；字段不完整时从数据库补齐
+     */
+    public void put(Question question) {
+        if (!tracking() || question == null || question.getId() == null) {
+            return;
+        }
+        Question state = question;
+        if (question.getIsEnabled() == null || question.getCategoryId() == null
+                || question.getDifficulty() == null || question.getType() == null) {
+            state = questionMapper.selectOne(indexColumns().eq(Question::getId, question.getId()));
+        }
+        boolean enabled = state != null && Boolean.TRUE.equals(state.getIsEnabled());
+        write(new Write(question.getId(), enabled, enabled ? keyOf(state) : 0));
+    }
+
+    /**
+     * 删除题目后维护索引
+     */
+    public void remove(Integer id) {
+        if (!tracking() || id == null) {
+            return;
+        }
+        write(new Write(id, false, 0));
+    }
+
+    /**
+     * 全量重建索引
+     */
+    @Scheduled(initialDelay = 10, fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    public void rebuild() {
+        loadLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                journal = new ArrayList<>();
+                rebuilding = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Snapshot fresh = null;
+            int count = 0;
+            try {
+                // 在锁外查询，不阻塞抽题
+                List<Question> questions = questionMapper.selectList(indexColumns().eq(Question::getIsEnabled, true));
+                fresh = new Snapshot();
+                for (Question question : questions) {
+                    fresh.put(question.getId(), keyOf(question));
+                }
+                count = questions.size();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (fresh != null) {
+                        // 查询期间的增量写入可能未包含在查询结果中，按顺序重放
+                        for (Write write : journal) {
+                            write.applyTo(fresh);
+                        }
+                        snapshot = fresh;
+                        loaded = true;
+                    }
+                    journal = null;
+                    rebuilding = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("题目ID索引重建完成，共{}道题，{}个分桶，耗时{}ms",
+                    count, fresh.buckets.size(), System.currentTimeMillis() - start);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            loadLock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+
+    // 未加载且不在重建时无需维护，首次加载会读到最新数据
+    private boolean tracking() {
+        return loaded || rebuilding;
+    }
+
+    private void write(Write write) {
+        lock.writeLock().lock();
+        try {
+            write.applyTo(snapshot);
+            if (journal != null) {
+                journal.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private LambdaQueryWrapper<Question> indexColumns() {
+        return new LambdaQueryWrapper<Question>()
+                .select(Question::getId, Question::getCategoryId, Question::getDifficulty,
+                        Question::getType, Question::getIsEnabled);
+    }
+
+    private static int idAt(List<Bucket> matched, int[] offsets, int index) {
+        // 空桶已被过滤，前缀和严格递增
+        int pos = Arrays.binarySearch(offsets, index);
+        int bucketIndex = pos >= 0 ? pos : -pos - 2;
+        return matched.get(bucketIndex).ids[index - offsets[bucketIndex]];
+    }
+
+    // key 布局：分类ID(高位) | 难度(8位) | 题型(8位)
+    private static long keyOf(Question question) {
+        return ((long) question.getCategoryId() << 16)
+                | ((question.getDifficulty() & 0xFF) << 8)
+                | (question.getType() & 0xFF);
+    }
+
+    private static int categoryOf(long key) {
+        return (int) (key >>> 16);
+    }
+
+    private static int difficultyOf(long key) {
+        return (int) ((key >>> 8) & 0xFF);
+    }
+
+    private static int typeOf(long key) {
+        return (int) (key & 0xFF);
+    }
+
+    /**
+     * 一份完整的索引：分桶 + 每个ID所在的槽位
+     */
+    private static class Snapshot {
+        private final Map<Long, Bucket> buckets = new HashMap<>();
+        private final Map<Integer, Slot> slots = new HashMap<>();
+
+        void put(int id, long key) {
+            Slot slot = slots.get(id);
+            if (slot != null) {
+                if (slot.bucket == buckets.get(key)) {
+                    return;
+                }
+                remove(id);
+            }
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            slots.put(id, new Slot(bucket, bucket.size));
+            bucket.add(id);
+        }
+
+        void remove(int id) {
+            Slot slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            // 与末尾元素交换，并更新被移动元素的槽位
+            Bucket bucket = slot.bucket;
+            int last = bucket.ids[--bucket.size];
+            if (slot.index != bucket.size) {
+                bucket.ids[slot.index] = last;
+                slots.get(last).index = slot.index;
+            }
+        }
+    }
+
+    private static class Slot {
+        private final Bucket bucket;
+        private int index;
+
+        Slot(Bucket bucket, int index) {
+            this.bucket = bucket;
+            this.index = index;
+        }
+    }
+
+    /**
+     * 单个分桶：原始 int 数组 + 长度
+     */
+    private static class Bucket {
+        private int[] ids = new int[INITIAL_BUCKET_CAPACITY];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * 一次增量写入：启用时放入 key 对应的桶，否则移出索引
+     */
+    private static class Write {
+        private final int id;
+        private final boolean enabled;
+        private final long key;
+
+        Write(int id, boolean enabled, long key) {
+            this.id = id;
+            this.enabled = enabled;
+            this.key = key;
+        }
+
+        void applyTo(Snapshot snapshot) {
+            if (enabled) {
+                snapshot.put(id, key);
+            } else {
+                snapshot.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.zhj.devdeck.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.vo.RoleVO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 节点内角色详情（含权限）缓存
+ * <p>
+ * 角色权限绑定变更或角色删除后，本节点直接失效；其他节点通过 {@link PermissionEngine}
+ * 发布的角色变更消息失效。缓存中的 RoleVO 在请求间共享，调用方只读。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleDetailCache implements MessageListener {
+
+    private static final Duration LOCAL_EXPIRE = Duration.ofMinutes(10);
+    private static final int LOCAL_MAX_SIZE = 1000;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Cache<Integer, RoleVO> details = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterWrite(LOCAL_EXPIRE)
+            .build();
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.PERMISSION_INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 批量读取，未命中的角色一次性交给 loader 加载
+     */
+    public Map<Integer, RoleVO> getAll(Collection<Integer> ids,
+                                       Function<Set<? extends Integer>, Map<Integer, RoleVO>> loader) {
+        return details.getAll(ids, loader);
+    }
+
+    public void evict(Integer roleId) {
+        details.invalidate(roleId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!body.startsWith(PermissionEngine.ROLE_MESSAGE)) {
+            return;
+        }
+        try {
+            details.invalidate(Integer.valueOf(body.substring(PermissionEngine.ROLE_MESSAGE.length())));
+        } catch (NumberFormatException e) {
+            log.warn("忽略非法的角色变更消息：{}", body);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.zhj.devdeck.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.constant.RedisConstant;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 节点内登录会话缓存
+ * <p>
+ * 以用户ID缓存 Redis 中的当前 token，命中时无需访问 Redis；条目短时过期后重新从 Redis 读取。
+ * 会话续期按用户节流，并在后台线程异步执行，不阻塞请求。
+ * 登出、重新登录时通过 Redis 发布订阅通知所有节点立即失效本地条目。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionCache implements MessageListener {
+
+    private static final Duration LOCAL_EXPIRE = Duration.ofSeconds(30);
+    private static final int LOCAL_MAX_SIZE = 100_000;
+    // 距上次续期超过该间隔才再次续期
+    private static final long REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Cache<Integer, Session> sessions = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterWrite(LOCAL_EXPIRE)
+            .build();
+
+    // 续期是尽力而为的操作，队列满时直接丢弃
+    private final ThreadPoolExecutor refresher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1024), runnable -> {
+                Thread thread = new Thread(runnable, "session-refresher");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.SESSION_INVALIDATE_CHANNEL));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdown();
+    }
+
+    /**
+     * 校验 token 是否为该用户当前有效的会话，并按需异步续期
+     */
+    public boolean validate(Integer userId, String token) {
+        Session session = sessions.getIfPresent(userId);
+        if (session == null) {
+            String current = redisTemplate.opsForValue().get(RedisConstant.TOKEN_PREFIX + userId);
+            if (current == null) {
+                return false;
+            }
+            // 刚从 Redis 读到，视为需要续期
+            session = new Session(current, 0);
+            sessions.put(userId, session);
+        }
+        if (!session.token.equals(token)) {
+            return false;
+        }
+        refreshIfDue(userId, session);
+        return true;
+    }
+
+    /**
+     * 使该用户在所有节点上的本地会话失效
+     */
+    public void invalidate(Integer userId) {
+        sessions.invalidate(userId);
+        redisTemplate.convertAndSend(RedisConstant.SESSION_INVALIDATE_CHANNEL, String.valueOf(userId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            sessions.invalidate(Integer.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("忽略非法的会话失效消息");
+        }
+    }
+
+    private void refreshIfDue(Integer userId, Session session) {
+        long now = System.currentTimeMillis();
+        long last = session.lastRefresh.get();
+        // CAS 保证同一用户在一个间隔内只提交一次续期
+        if (now - last < REFRESH_INTERVAL_MILLIS || !session.lastRefresh.compareAndSet(last, now)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                redisTemplate.expire(RedisConstant.TOKEN_PREFIX + userId,
+                        RedisConstant.TOKEN_REFRESH_EXPIRE, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                // 续期失败时允许下一次请求重试
+                session.lastRefresh.set(0);
+                log.warn("会话续期失败：userId={}", userId, e);
+            }
+        });
+    }
+
+    private static final class Session {
+        private final String token;
+        private final AtomicLong lastRefresh;
+
+        private Session(String token, long lastRefresh) {
+            this.token = token;
+            this.lastRefresh = new AtomicLong(lastRefresh);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.mapper.QuestionMapper;
+import org.zhj.devdeck.model.Question;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 题目提交次数计数器，每5秒批量写回 submit_count
+ */
+@Component
+public class SubmitCounter extends QuestionCounter {
+
+    private final QuestionMapper questionMapper;
+
+    public SubmitCounter(QuestionMapper questionMapper, QuestionDetailCache questionDetailCache) {
+        super("submit_count", questionMapper, questionDetailCache);
+        this.questionMapper = questionMapper;
+    }
+
+    /**
+     * 提交次数 +1
+     *
+     * @return 题目不存在时返回 false
+     */
+    public boolean increment(Integer questionId) {
+        LongAdder adder = adderOf(questionId);
+        if (adder == null) {
+            // 每个题目在本节点只校验一次是否存在，计数表大小受题库规模约束
+            if (!exists(questionId)) {
+                return false;
+            }
+            adder = register(questionId);
+        }
+        adder.increment();
+        return true;
+    }
+
+    @Override
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.SECONDS)
+    public void flush() {
+        super.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean exists(Integer questionId) {
+        return questionId != null && questionMapper.selectCount(new LambdaQueryWrapper<Question>()
+                .eq(Question::getId, questionId)) > 0;
+    }
+}
@@ -0,0 +1,81 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.mapper.UserMapper;
+import org.zhj.devdeck.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 用户目录：按用户ID批量解析昵称，供后台列表的创建人/修改人等审计列使用
+ * <p>
+ * 一页中涉及的用户ID合并为一次查询，结果放入有界本地缓存并定时过期；
+ * 用户修改资料时随 {@link UserProfileCache} 的失效消息一并失效。已注销的用户不在结果中。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDirectory implements MessageListener {
+
+    private static final Duration LOCAL_EXPIRE = Duration.ofMinutes(10);
+    private static final int LOCAL_MAX_SIZE = 10_000;
+
+    private final UserMapper userMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Cache<Integer, String> nicknames = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterWrite(LOCAL_EXPIRE)
+            .build();
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.USER_PROFILE_INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 批量获取昵称，忽略 null ID
+     */
+    public Map<Integer, String> getNicknames(Collection<Integer> userIds) {
+        Collection<Integer> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return new HashMap<>(nicknames.getAll(ids, missing -> userMapper.selectList(new LambdaQueryWrapper<User>()
+                        .select(User::getId, User::getNickname)
+                        .in(User::getId, missing))
+                .stream()
+                .filter(user -> user.getNickname() != null)
+                .collect(Collectors.toMap(User::getId, User::getNickname))));
+    }
+
+    public void evict(Integer userId) {
+        nicknames.invalidate(userId);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            nicknames.invalidate(Integer.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("忽略非法的用户资料失效消息");
+        }
+    }
+}
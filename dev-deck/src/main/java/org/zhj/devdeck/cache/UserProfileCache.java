@@ -0,0 +1,74 @@
+package org.zhj.devdeck.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.mapper.UserMapper;
+import org.zhj.devdeck.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * 节点内用户资料缓存
+ * <p>
+ * token 只携带用户ID、uuid 与会话版本，请求上下文中的用户按ID从这里读取。
+ * 修改昵称、头像、密码后通过 Redis 发布订阅通知所有节点失效对应条目；
+ * 条目同时设置过期时间，兜底丢失的失效消息。
+ * 缓存中的 User 在请求间共享，调用方只读，修改资料时应新建实体。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserProfileCache implements MessageListener {
+
+    private static final Duration LOCAL_EXPIRE = Duration.ofMinutes(10);
+    private static final int LOCAL_MAX_SIZE = 50_000;
+
+    private final UserMapper userMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // 每个请求都会读取，未命中时在锁外回源，不钉住虚拟线程的载体线程
+    private final CoalescingCache<Integer, User> profiles = new CoalescingCache<>(Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterWrite(LOCAL_EXPIRE));
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisConstant.USER_PROFILE_INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 按ID读取用户，用户不存在（含已注销）时返回 null
+     */
+    public User get(Integer userId) {
+        // 不缓存 null，不存在的用户每次都会回源
+        return profiles.get(userId, userMapper::selectById);
+    }
+
+    /**
+     * 使该用户在所有节点上的资料缓存失效
+     */
+    public void invalidate(Integer userId) {
+        profiles.invalidate(userId);
+        redisTemplate.convertAndSend(RedisConstant.USER_PROFILE_INVALIDATE_CHANNEL, String.valueOf(userId));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            profiles.invalidate(Integer.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("忽略非法的用户资料失效消息");
+        }
+    }
+}
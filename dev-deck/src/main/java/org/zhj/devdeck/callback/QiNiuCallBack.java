@@ -6,9 +6,11 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.zhj.devdeck.annotation.RateLimit;
 import org.zhj.devdeck.common.QiniuAuditResult;
 import org.zhj.devdeck.model.AuditAvatar;
 import org.zhj.devdeck.enums.AuditEnum;
+import org.zhj.devdeck.ratelimit.RateLimitAlgorithm;
 import org.zhj.devdeck.service.AuditAvatarService;
 import org.zhj.devdeck.service.UsersService;
 import org.zhj.devdeck.service.impl.QiniuService;
@@ -34,6 +36,7 @@ public class QiNiuCallBack {
 
 
     @PostMapping("/audit")
+    @RateLimit(name = "qiniu-callback", by = RateLimit.Dimension.GLOBAL, algorithm = RateLimitAlgorithm.TOKEN_BUCKET, permits = 200)
     public void handleAuditCallback(@RequestBody QiniuAuditResult result, HttpServletRequest request) throws IOException {
         log.info("Received audit callback: {}", result);
         // 1. 验证签名（防止伪造请求）
@@ -64,6 +67,7 @@ public class QiNiuCallBack {
     }
 
     @PostMapping("/upload")
+    @RateLimit(name = "qiniu-callback", by = RateLimit.Dimension.GLOBAL, algorithm = RateLimitAlgorithm.TOKEN_BUCKET, permits = 200)
     public ResponseEntity<?> handleCallback(
             @RequestParam("key") String key,
             @RequestParam("bucket") String bucket,
@@ -0,0 +1,24 @@
+package org.zhj.devdeck.common;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 游标分页结果（不统计总数）
+ */
+@Data
+public class CursorPage<T> {
+
+    private List<T> records = new ArrayList<>();
+
+    private Integer size;
+
+    /**
+     * 下一页游标，为空表示没有更多数据
+     */
+    private String nextCursor;
+
+    private Boolean hasMore = false;
+}
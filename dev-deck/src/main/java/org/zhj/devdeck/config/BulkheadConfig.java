@@ -0,0 +1,57 @@
+package org.zhj.devdeck.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zhj.devdeck.bulkhead.Bulkhead;
+import org.zhj.devdeck.bulkhead.BulkheadDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * 下游舱壁配置（数据库、Redis、SMTP）
+ * <p>
+ * 开启虚拟线程（spring.threads.virtual.enabled）后请求并发不再受 Tomcat 线程池限制，
+ * 各下游按自身容量限流：数据库许可数不超过 Hikari 连接池大小，SMTP 只允许少量并发连接。
+ * Redis 舱壁见 {@link RedisConfig#stringRedisTemplate}。
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead dbBulkhead(@Value("${bulkhead.db.max-concurrent:200}") int maxConcurrent,
+                               @Value("${bulkhead.db.max-wait-millis:3000}") long maxWaitMillis) {
+        return new Bulkhead("db", maxConcurrent, maxWaitMillis);
+    }
+
+    @Bean
+    public Bulkhead redisBulkhead(@Value("${bulkhead.redis.max-concurrent:500}") int maxConcurrent,
+                                  @Value("${bulkhead.redis.max-wait-millis:1000}") long maxWaitMillis) {
+        return new Bulkhead("redis", maxConcurrent, maxWaitMillis);
+    }
+
+    @Bean
+    public Bulkhead smtpBulkhead(@Value("${bulkhead.smtp.max-concurrent:10}") int maxConcurrent,
+                                 @Value("${bulkhead.smtp.max-wait-millis:5000}") long maxWaitMillis) {
+        return new Bulkhead("smtp", maxConcurrent, maxWaitMillis);
+    }
+
+    /**
+     * 用舱壁包装自动配置的连接池，保留 Hikari 自身的配置与监控
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(@Qualifier("dbBulkhead") ObjectProvider<Bulkhead> dbBulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, dbBulkhead.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,18 +1,27 @@
 package org.zhj.devdeck.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.zhj.devdeck.interceptor.PermissionInterceptor;
+import org.zhj.devdeck.interceptor.RateLimitInterceptor;
 
 /**
- * 跨域配置
+ * 跨域与拦截器配置
  * @Author 86155
  * @Date 2025/5/24
  */
 @Configuration
-public class WebMvcConfig {
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final PermissionInterceptor permissionInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
 
     @Bean
     public CorsFilter corsFilter() {
@@ -27,4 +36,11 @@ public class WebMvcConfig {
         source.registerCorsConfiguration("/**", config);
         return new CorsFilter(source);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 先限流，再鉴权
+        registry.addInterceptor(rateLimitInterceptor);
+        registry.addInterceptor(permissionInterceptor);
+    }
 }
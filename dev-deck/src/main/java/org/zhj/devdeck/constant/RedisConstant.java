@@ -10,13 +10,21 @@ public class RedisConstant {
 
     public static final String TOKEN_PREFIX = "user:token:";
     public static final Integer TOKEN_EXPIRE = 60 * 60 * 24 * 7;
+    public static final Integer TOKEN_REFRESH_EXPIRE = 60 * 30;
+    public static final String SESSION_INVALIDATE_CHANNEL = "session:invalidate";
+    public static final String USER_PROFILE_INVALIDATE_CHANNEL = "user:profile:invalidate";
+    public static final String PERMISSION_INVALIDATE_CHANNEL = "permission:invalidate";
     public static final String CAPTCHA_PREFIX = "captcha:";
     public static final Integer CAPTCHA_EXPIRE = 60 * 5;
     public static final String VERIFY_PREFIX = "verify:";
     public static final String BUSINESS_TYPE_REGISTER = "register:";
     public static final String BUSINESS_TYPE_LOGIN = "login:";
     public static final String BUSINESS_TYPE_RESET_PASSWORD = "reset_password:";
-    public static final String IP_LIMIT = "ip:limit:";
-    public static final String USER_LIMIT = "user:limit:";
+    public static final String RATE_LIMIT_PREFIX = "rate:limit:";
+    public static final String QUESTION_DETAIL_PREFIX = "question:detail:";
+    public static final String QUESTION_SLUG_PREFIX = "question:slug:";
+    public static final Integer QUESTION_DETAIL_EXPIRE = 60 * 30;
+    public static final String FAVORITE_PREFIX = "favorite:user:";
+    public static final Integer FAVORITE_EXPIRE = 60 * 60 * 24;
 
 }
@@ -2,27 +2,46 @@ package org.zhj.devdeck.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import jakarta.annotation.Resource;
+import jakarta.validation.Valid;
 import org.springframework.beans.BeanUtils;
 import org.springframework.web.bind.annotation.*;
+import org.zhj.devdeck.annotation.RequiresPermission;
 import org.zhj.devdeck.assembles.AdminService;
+import org.zhj.devdeck.cache.CaptchaPool;
+import org.zhj.devdeck.cache.QuestionDetailCache;
+import org.zhj.devdeck.mail.MailDispatcher;
+import org.zhj.devdeck.monitor.SystemSampler;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.common.Result;
 import org.zhj.devdeck.dto.BindRolePermissionDTO;
+import org.zhj.devdeck.dto.BulkUpdateUserRolesDTO;
 import org.zhj.devdeck.dto.CreatePermissionDTO;
 import org.zhj.devdeck.dto.CreateRoleDTO;
 import org.zhj.devdeck.dto.UpdateUserRolesDTO;
 import org.zhj.devdeck.dto.UserPageDTO;
 import org.zhj.devdeck.request.BindRolePermissionRequest;
+import org.zhj.devdeck.request.BulkUpdateUserRolesRequest;
 import org.zhj.devdeck.request.CreatePermissionRequest;
 import org.zhj.devdeck.request.CreateRoleRequest;
 import org.zhj.devdeck.request.UpdateUserRolesRequest;
 import org.zhj.devdeck.request.UserPageRequest;
+import org.zhj.devdeck.response.BulkUserRolesResult;
+import org.zhj.devdeck.response.CacheStatus;
+import org.zhj.devdeck.response.CaptchaPoolStatus;
+import org.zhj.devdeck.response.MailQueueStatus;
+import org.zhj.devdeck.response.SystemStatus;
+import org.zhj.devdeck.response.SystemStatusHistory;
 import org.zhj.devdeck.vo.PermissionVO;
 import org.zhj.devdeck.vo.RoleVO;
 import org.zhj.devdeck.vo.UserDetailVO;
 import org.zhj.devdeck.vo.UserVO;
 
+import java.util.List;
+
 /**
  * 后台管理控制器
+ * <p>
+ * 各接口所需权限见 {@link RequiresPermission}，系统管理员拥有全部权限
  *
  * @Author 86155
  * @Date 2025/5/23
@@ -34,7 +53,20 @@ public class AdminController {
     @Resource
     private AdminService adminService;
 
+    @Resource
+    private QuestionDetailCache questionDetailCache;
+
+    @Resource
+    private MailDispatcher mailDispatcher;
+
+    @Resource
+    private CaptchaPool captchaPool;
+
+    @Resource
+    private SystemSampler systemSampler;
+
     @PostMapping("/permission")
+    @RequiresPermission("permission:create")
     public Result<String> createPermission(@RequestBody CreatePermissionRequest request) {
         CreatePermissionDTO dto = new CreatePermissionDTO();
         BeanUtils.copyProperties(request,dto);
@@ -42,12 +74,14 @@ public class AdminController {
     }
 
     @GetMapping("/permission/list")
+    @RequiresPermission("permission:view")
     public Result<IPage<PermissionVO>> listPermission(@RequestParam Integer pageNo,
                                                     @RequestParam Integer pageSize) {
         return Result.success(adminService.listPermission(pageNo,pageSize));
     }
 
     @PostMapping("/role")
+    @RequiresPermission("role:create")
     public Result<String> createRole(@RequestBody CreateRoleRequest request) {
         CreateRoleDTO dto = new CreateRoleDTO();
         BeanUtils.copyProperties(request,dto);
@@ -55,17 +89,20 @@ public class AdminController {
     }
 
     @GetMapping("/role/list")
+    @RequiresPermission("role:view")
     public Result<IPage<RoleVO>> listRole(@RequestParam Integer pageNo,
                                            @RequestParam Integer pageSize) {
         return Result.success(adminService.listRole(pageNo,pageSize));
     }
 
     @GetMapping("/role/{id}")
+    @RequiresPermission("role:view")
     public Result<RoleVO> getRoleDetail(@PathVariable("id") Integer id) {
         return Result.success(adminService.getRoleDetail(id));
     }
 
     @PostMapping("/role/permission")
+    @RequiresPermission("role:update")
     public Result<String> updateRole(@RequestBody BindRolePermissionRequest request) {
         BindRolePermissionDTO dto = new BindRolePermissionDTO();
         BeanUtils.copyProperties(request,dto);
@@ -73,26 +110,85 @@ public class AdminController {
     }
 
     @DeleteMapping("/role/{id}")
+    @RequiresPermission("role:delete")
     public Result<String> deleteRole(@PathVariable("id") Integer id) {
         return Result.success(adminService.deleteRole(id));
     }
 
     @GetMapping("/user/{uuid}")
+    @RequiresPermission("user:view")
     public Result<UserDetailVO> getUser(@PathVariable("uuid") String uuid) {
         return Result.success(adminService.getUserDetail(uuid));
     }
 
     @PostMapping("/user/list")
+    @RequiresPermission("user:view")
     public Result<IPage<UserVO>> listUser(@RequestBody UserPageRequest request) {
         UserPageDTO dto = new UserPageDTO();
         BeanUtils.copyProperties(request,dto);
         return Result.success(adminService.listUser(dto));
     }
 
+    /**
+     * 用户列表游标分页，pageSize 为每页条数，after 为上一页返回的 nextCursor
+     */
+    @PostMapping("/user/cursor")
+    @RequiresPermission("user:view")
+    public Result<CursorPage<UserVO>> listUserCursor(@RequestBody UserPageRequest request) {
+        UserPageDTO dto = new UserPageDTO();
+        BeanUtils.copyProperties(request,dto);
+        return Result.success(adminService.listUserCursor(dto));
+    }
+
     @PostMapping("/user/roles")
+    @RequiresPermission("user:role-assign")
     public Result<String> updateUserRoles(@RequestBody UpdateUserRolesRequest request) {
         UpdateUserRolesDTO dto = new UpdateUserRolesDTO();
         BeanUtils.copyProperties(request,dto);
         return Result.success(adminService.updateUserRoles(dto));
     }
+
+    @PostMapping("/user/roles/bulk")
+    @RequiresPermission("user:role-assign")
+    public Result<BulkUserRolesResult> bulkUpdateUserRoles(@Valid @RequestBody BulkUpdateUserRolesRequest request) {
+        BulkUpdateUserRolesDTO dto = new BulkUpdateUserRolesDTO();
+        BeanUtils.copyProperties(request,dto);
+        return Result.success(adminService.bulkUpdateUserRoles(dto));
+    }
+
+    @GetMapping("/cache/status")
+    @RequiresPermission("system:monitor")
+    public Result<List<CacheStatus>> cacheStatus() {
+        return Result.success(List.of(questionDetailCache.status()));
+    }
+
+    @GetMapping("/mail/status")
+    @RequiresPermission("system:monitor")
+    public Result<MailQueueStatus> mailStatus() {
+        return Result.success(mailDispatcher.status());
+    }
+
+    @GetMapping("/captcha/status")
+    @RequiresPermission("system:monitor")
+    public Result<CaptchaPoolStatus> captchaStatus() {
+        return Result.success(captchaPool.status());
+    }
+
+    /**
+     * 主机与 JVM 的最近一次采样，启动后首次采样前返回 null
+     */
+    @GetMapping("/system/status")
+    @RequiresPermission("system:monitor")
+    public Result<SystemStatus> systemStatus() {
+        return Result.success(systemSampler.current());
+    }
+
+    /**
+     * 最近 minutes 分钟的采样序列，最多返回采样器保留的时长
+     */
+    @GetMapping("/system/history")
+    @RequiresPermission("system:monitor")
+    public Result<SystemStatusHistory> systemHistory(@RequestParam(value = "minutes", defaultValue = "15") Integer minutes) {
+        return Result.success(systemSampler.history(minutes));
+    }
 }
@@ -3,7 +3,11 @@ package org.zhj.devdeck.controller;
 import jakarta.validation.Valid;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.zhj.devdeck.annotation.RequiresPermission;
+import org.zhj.devdeck.cache.CategoryTree;
 import org.zhj.devdeck.common.Result;
 import org.zhj.devdeck.model.Category;
 import org.zhj.devdeck.request.CreateCategoryRequest;
@@ -26,21 +30,21 @@ public class CategoryController {
     private CategoryService categoryService;
 
     /**
-     * 获取分类树形结构
+     * 获取分类树形结构（支持 If-None-Match，未变化时返回304）
      */
     @GetMapping("/tree")
-    public Result<List<CategoryVO>> getCategoryTree() {
-        List<CategoryVO> categoryTree = categoryService.getCategoryTree();
-        return Result.success(categoryTree);
+    public ResponseEntity<Result<List<CategoryVO>>> getCategoryTree() {
+        CategoryTree snapshot = categoryService.getSnapshot();
+        return withEtag(snapshot.getTreeEtag(), snapshot.getTree());
     }
 
     /**
-     * 获取启用的分类列表
+     * 获取启用的分类列表（支持 If-None-Match，未变化时返回304）
      */
     @GetMapping("/enabled")
-    public Result<List<CategoryVO>> getEnabledCategories() {
-        List<CategoryVO> categories = categoryService.getEnabledCategories();
-        return Result.success(categories);
+    public ResponseEntity<Result<List<CategoryVO>>> getEnabledCategories() {
+        CategoryTree snapshot = categoryService.getSnapshot();
+        return withEtag(snapshot.getEnabledTreeEtag(), snapshot.getEnabledTree());
     }
 
     /**
@@ -71,6 +75,7 @@ public class CategoryController {
      * 创建分类
      */
     @PostMapping
+    @RequiresPermission("category:create")
     public Result<Category> createCategory(@Valid @RequestBody CreateCategoryRequest request) {
         // 检查slug是否唯一
         if (!categoryService.isSlugUnique(request.getSlug(), null)) {
@@ -82,6 +87,7 @@ public class CategoryController {
         
         boolean success = categoryService.save(category);
         if (success) {
+            categoryService.refreshSnapshot();
             return Result.success(category);
         } else {
             return Result.error("创建分类失败");
@@ -92,6 +98,7 @@ public class CategoryController {
      * 更新分类
      */
     @PutMapping("/{id}")
+    @RequiresPermission("category:update")
     public Result<Category> updateCategory(@PathVariable Integer id, 
                                          @Valid @RequestBody UpdateCategoryRequest request) {
         Category existingCategory = categoryService.getById(id);
@@ -109,6 +116,7 @@ public class CategoryController {
         
         boolean success = categoryService.updateById(existingCategory);
         if (success) {
+            categoryService.refreshSnapshot();
             return Result.success(existingCategory);
         } else {
             return Result.error("更新分类失败");
@@ -119,6 +127,7 @@ public class CategoryController {
      * 删除分类
      */
     @DeleteMapping("/{id}")
+    @RequiresPermission("category:delete")
     public Result<Void> deleteCategory(@PathVariable Integer id) {
         Category category = categoryService.getById(id);
         if (category == null) {
@@ -127,6 +136,7 @@ public class CategoryController {
 
         boolean success = categoryService.removeById(id);
         if (success) {
+            categoryService.refreshSnapshot();
             return Result.success();
         } else {
             return Result.error("删除分类失败");
@@ -142,4 +152,14 @@ public class CategoryController {
         boolean isUnique = categoryService.isSlugUnique(slug, excludeId);
         return Result.success(isUnique);
     }
+
+    /**
+     * 带 ETag 返回；请求头 If-None-Match 匹配时由 Spring 直接返回304，不序列化响应体
+     */
+    private ResponseEntity<Result<List<CategoryVO>>> withEtag(String etag, List<CategoryVO> body) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(Result.success(body));
+    }
 } 
\ No newline at end of file
@@ -10,6 +10,7 @@ import org.springframework.validation.FieldError;
 import org.zhj.devdeck.common.Result;
 import org.zhj.devdeck.enums.ResultCode;
 import org.zhj.devdeck.exception.AuthException;
+import org.zhj.devdeck.exception.BulkheadRejectedException;
 import org.zhj.devdeck.exception.QuizException;
 
 @RestControllerAdvice
@@ -54,6 +55,12 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public Result<String> handleException(Exception ex) {
+        // 借连接时被舱壁拒绝会被 MyBatis、事务管理器包装，按异常链还原为服务繁忙
+        BulkheadRejectedException rejected = findCause(ex, BulkheadRejectedException.class);
+        if (rejected != null) {
+            log.warn("舱壁拒绝: bulkhead={}, {}", rejected.getBulkheadName(), ex.getMessage());
+            return Result.error(rejected.getCode(), rejected.getMessage());
+        }
         // 记录详细的错误日志
         log.error("系统内部异常: {}", ex.getMessage(), ex);
         // 生产环境建议返回通用错误信息，避免暴露细节
@@ -62,4 +69,13 @@ public class GlobalExceptionHandler {
                 "服务器内部错误，请联系管理员"
         );
     }
-}
\ No newline at end of file
+
+    private static <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+}
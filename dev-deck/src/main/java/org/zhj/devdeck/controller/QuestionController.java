@@ -5,13 +5,21 @@ import jakarta.validation.Valid;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.zhj.devdeck.annotation.RequiresPermission;
+import org.zhj.devdeck.cache.FavoriteCounter;
+import org.zhj.devdeck.cache.QuestionDetailCache;
+import org.zhj.devdeck.cache.QuestionIdIndex;
+import org.zhj.devdeck.cache.SubmitCounter;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.common.Result;
 import org.zhj.devdeck.model.Question;
+import org.zhj.devdeck.request.ComposeQuizRequest;
 import org.zhj.devdeck.request.CreateQuestionRequest;
 import org.zhj.devdeck.request.QuestionPageRequest;
 import org.zhj.devdeck.request.UpdateQuestionRequest;
 import org.zhj.devdeck.service.QuestionService;
 import org.zhj.devdeck.utils.UserContext;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
 import org.zhj.devdeck.vo.QuestionVO;
 
 import java.util.List;
@@ -27,12 +35,24 @@ public class QuestionController {
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private QuestionIdIndex questionIdIndex;
+
+    @Autowired
+    private SubmitCounter submitCounter;
+
+    @Autowired
+    private FavoriteCounter favoriteCounter;
+
+    @Autowired
+    private QuestionDetailCache questionDetailCache;
+
     /**
      * 分页查询题目
      */
     @GetMapping
-    public Result<Page<QuestionVO>> getQuestionPage(QuestionPageRequest request) {
-        Page<QuestionVO> page = questionService.getQuestionPage(request);
+    public Result<Page<QuestionSummaryVO>> getQuestionPage(QuestionPageRequest request) {
+        Page<QuestionSummaryVO> page = questionService.getQuestionPage(request);
         return Result.success(page);
     }
 
@@ -40,24 +60,42 @@ public class QuestionController {
      * 根据分类ID获取题目列表
      */
     @GetMapping("/category/{categoryId}")
-    public Result<Page<QuestionVO>> getQuestionsByCategory(
+    public Result<Page<QuestionSummaryVO>> getQuestionsByCategory(
             @PathVariable Integer categoryId,
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size) {
-        Page<QuestionVO> questionPage = questionService.getQuestionsByCategory(categoryId, page, size);
+        Page<QuestionSummaryVO> questionPage = questionService.getQuestionsByCategory(categoryId, page, size);
         return Result.success(questionPage);
     }
 
+    /**
+     * 游标分页查询题目（适用于无限滚动，不返回总数）
+     */
+    @GetMapping("/cursor")
+    public Result<CursorPage<QuestionSummaryVO>> getQuestionCursor(QuestionPageRequest request) {
+        return Result.success(questionService.getQuestionCursor(request));
+    }
+
+    /**
+     * 根据分类ID游标分页获取题目列表
+     */
+    @GetMapping("/category/{categoryId}/cursor")
+    public Result<CursorPage<QuestionSummaryVO>> getQuestionCursorByCategory(
+            @PathVariable Integer categoryId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") Integer size) {
+        return Result.success(questionService.getQuestionCursorByCategory(categoryId, after, size));
+    }
+
     /**
      * 根据ID获取题目详情
      */
     @GetMapping("/{id}")
     public Result<QuestionVO> getQuestionById(@PathVariable Integer id) {
-        Question question = questionService.getById(id);
-        if (question == null) {
+        QuestionVO vo = questionService.getQuestionDetail(id);
+        if (vo == null) {
             return Result.error("题目不存在");
         }
-        QuestionVO vo = questionService.convertToVO(question);
         return Result.success(vo);
     }
 
@@ -66,11 +104,10 @@ public class QuestionController {
      */
     @GetMapping("/slug/{slug}")
     public Result<QuestionVO> getQuestionBySlug(@PathVariable String slug) {
-        Question question = questionService.getQuestionBySlug(slug);
-        if (question == null) {
+        QuestionVO vo = questionService.getQuestionDetailBySlug(slug);
+        if (vo == null) {
             return Result.error("题目不存在");
         }
-        QuestionVO vo = questionService.convertToVO(question);
         return Result.success(vo);
     }
 
@@ -78,6 +115,7 @@ public class QuestionController {
      * 创建题目
      */
     @PostMapping
+    @RequiresPermission("question:create")
     public Result<QuestionVO> createQuestion(@Valid @RequestBody CreateQuestionRequest request) {
         // 检查slug是否唯一
         if (!questionService.isSlugUnique(request.getSlug(), null)) {
@@ -89,6 +127,7 @@ public class QuestionController {
         
         boolean success = questionService.save(question);
         if (success) {
+            questionIdIndex.put(question);
             QuestionVO vo = questionService.convertToVO(question);
             return Result.success(vo);
         } else {
@@ -100,6 +139,7 @@ public class QuestionController {
      * 更新题目
      */
     @PutMapping("/{id}")
+    @RequiresPermission("question:update")
     public Result<QuestionVO> updateQuestion(@PathVariable Integer id, 
                                            @Valid @RequestBody UpdateQuestionRequest request) {
         Question existingQuestion = questionService.getById(id);
@@ -112,11 +152,22 @@ public class QuestionController {
             return Result.error("题目标识已存在");
         }
 
+        String oldSlug = existingQuestion.getSlug();
         BeanUtils.copyProperties(request, existingQuestion);
         existingQuestion.setId(id);
+
+        // 提交次数、收藏数由计数器增量写回，这里不回写旧值以免覆盖
+        Integer submitCount = existingQuestion.getSubmitCount();
+        Integer favoriteCount = existingQuestion.getFavoriteCount();
+        existingQuestion.setSubmitCount(null);
+        existingQuestion.setFavoriteCount(null);
         
         boolean success = questionService.updateById(existingQuestion);
+        existingQuestion.setSubmitCount(submitCount);
+        existingQuestion.setFavoriteCount(favoriteCount);
         if (success) {
+            questionIdIndex.put(existingQuestion);
+            questionDetailCache.evict(id, oldSlug, existingQuestion.getSlug());
             QuestionVO vo = questionService.convertToVO(existingQuestion);
             return Result.success(vo);
         } else {
@@ -128,6 +179,7 @@ public class QuestionController {
      * 删除题目
      */
     @DeleteMapping("/{id}")
+    @RequiresPermission("question:delete")
     public Result<Void> deleteQuestion(@PathVariable Integer id) {
         Question question = questionService.getById(id);
         if (question == null) {
@@ -136,6 +188,10 @@ public class QuestionController {
 
         boolean success = questionService.removeById(id);
         if (success) {
+            questionIdIndex.remove(id);
+            submitCounter.discard(id);
+            favoriteCounter.discard(id);
+            questionDetailCache.evict(id, question.getSlug());
             return Result.success();
         } else {
             return Result.error("删除题目失败");
@@ -157,32 +213,25 @@ public class QuestionController {
      */
     @PostMapping("/{id}/submit")
     public Result<Void> incrementSubmitCount(@PathVariable Integer id) {
-        Question question = questionService.getById(id);
-        if (question == null) {
+        // 计数先累加在内存中，由 SubmitCounter 定时批量写回
+        if (!submitCounter.increment(id)) {
             return Result.error("题目不存在");
         }
-
-        question.setSubmitCount(question.getSubmitCount() == null ? 1 : question.getSubmitCount() + 1);
-        boolean success = questionService.updateById(question);
-        
-        if (success) {
-            return Result.success();
-        } else {
-            return Result.error("更新提交次数失败");
-        }
+        return Result.success();
     }
 
     /**
      * 获取我的题目列表
      */
     @GetMapping("/my")
-    public Result<Page<QuestionVO>> getMyQuestions(
+    public Result<Page<QuestionSummaryVO>> getMyQuestions(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) Integer categoryId,
             @RequestParam(required = false) Integer type,
-            @RequestParam(required = false) Integer difficulty) {
+            @RequestParam(required = false) Integer difficulty,
+            @RequestParam(required = false) String q) {
 
         Integer id = UserContext.require().getId();
         QuestionPageRequest request = new QuestionPageRequest();
@@ -192,8 +241,9 @@ public class QuestionController {
         request.setCategoryId(categoryId);
         request.setType(type);
         request.setDifficulty(difficulty);
+        request.setQ(q);
         
-        Page<QuestionVO> questionPage = questionService.getMyQuestions(id, request);
+        Page<QuestionSummaryVO> questionPage = questionService.getMyQuestions(id, request);
         return Result.success(questionPage);
     }
     
@@ -222,4 +272,12 @@ public class QuestionController {
         List<QuestionVO> questions = questionService.getRandomQuestions(count);
         return Result.success(questions);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 按配额组卷（难度/题型/分类比例，可排除已做题目）
+     */
+    @PostMapping("/quiz")
+    public Result<List<QuestionVO>> composeQuiz(@Valid @RequestBody ComposeQuizRequest request) {
+        return Result.success(questionService.composeQuiz(request));
+    }
+}
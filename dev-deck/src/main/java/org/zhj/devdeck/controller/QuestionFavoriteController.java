@@ -3,10 +3,14 @@ package org.zhj.devdeck.controller;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.common.Result;
 import org.zhj.devdeck.request.QuestionPageRequest;
 import org.zhj.devdeck.service.QuestionFavoriteService;
-import org.zhj.devdeck.vo.QuestionVO;
+import org.zhj.devdeck.utils.UserContext;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
+
+import java.util.List;
 
 /**
  * 题目收藏控制器
@@ -16,6 +20,9 @@ import org.zhj.devdeck.vo.QuestionVO;
 @CrossOrigin
 public class QuestionFavoriteController {
 
+    // 批量查询收藏状态的最大题目数
+    private static final int MAX_STATUS_BATCH = 100;
+
     @Autowired
     private QuestionFavoriteService questionFavoriteService;
 
@@ -24,9 +31,7 @@ public class QuestionFavoriteController {
      */
     @PostMapping("/questions/{questionId}")
     public Result<Void> favoriteQuestion(@PathVariable Integer questionId) {
-        // TODO: 从当前登录用户获取用户ID，这里暂时使用固定值1
-        Integer currentUserId = 1;
-        
+        Integer currentUserId = UserContext.require().getId();
         boolean success = questionFavoriteService.favoriteQuestion(currentUserId, questionId);
         if (success) {
             return Result.success();
@@ -40,9 +45,7 @@ public class QuestionFavoriteController {
      */
     @DeleteMapping("/questions/{questionId}")
     public Result<Void> unfavoriteQuestion(@PathVariable Integer questionId) {
-        // TODO: 从当前登录用户获取用户ID，这里暂时使用固定值1
-        Integer currentUserId = 1;
-        
+        Integer currentUserId = UserContext.require().getId();
         boolean success = questionFavoriteService.unfavoriteQuestion(currentUserId, questionId);
         if (success) {
             return Result.success();
@@ -56,22 +59,39 @@ public class QuestionFavoriteController {
      */
     @GetMapping("/questions/{questionId}/status")
     public Result<Boolean> checkFavoriteStatus(@PathVariable Integer questionId) {
-        // TODO: 从当前登录用户获取用户ID，这里暂时使用固定值1
-        Integer currentUserId = 1;
-        
+        Integer currentUserId = UserContext.require().getId();
         boolean isFavorited = questionFavoriteService.isFavorited(currentUserId, questionId);
         return Result.success(isFavorited);
     }
 
+    /**
+     * 批量检查收藏状态，返回与 ids 顺序一致的布尔数组
+     */
+    @GetMapping("/questions/status")
+    public Result<List<Boolean>> checkFavoriteStatuses(@RequestParam List<Integer> ids) {
+        if (ids.size() > MAX_STATUS_BATCH) {
+            return Result.error("单次最多查询" + MAX_STATUS_BATCH + "道题目");
+        }
+        Integer currentUserId = UserContext.require().getId();
+        return Result.success(questionFavoriteService.getFavoriteStatuses(currentUserId, ids));
+    }
+
     /**
      * 获取我的收藏题目列表
      */
     @GetMapping("/questions")
-    public Result<Page<QuestionVO>> getFavoriteQuestions(QuestionPageRequest request) {
-        // TODO: 从当前登录用户获取用户ID，这里暂时使用固定值1
-        Integer currentUserId = 1;
-        
-        Page<QuestionVO> page = questionFavoriteService.getFavoriteQuestions(currentUserId, request);
+    public Result<Page<QuestionSummaryVO>> getFavoriteQuestions(QuestionPageRequest request) {
+        Integer currentUserId = UserContext.require().getId();
+        Page<QuestionSummaryVO> page = questionFavoriteService.getFavoriteQuestions(currentUserId, request);
         return Result.success(page);
     }
+
+    /**
+     * 游标分页获取我的收藏题目列表（按收藏时间倒序，不返回总数）
+     */
+    @GetMapping("/questions/cursor")
+    public Result<CursorPage<QuestionSummaryVO>> getFavoriteQuestionCursor(QuestionPageRequest request) {
+        Integer currentUserId = UserContext.require().getId();
+        return Result.success(questionFavoriteService.getFavoriteQuestionCursor(currentUserId, request));
+    }
 } 
\ No newline at end of file
@@ -7,16 +7,21 @@ import jakarta.validation.Valid;
 import org.springframework.beans.BeanUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.zhj.devdeck.annotation.RateLimit;
 import org.zhj.devdeck.assembles.UserService;
 import org.zhj.devdeck.common.Result;
 import org.zhj.devdeck.dto.RegisterDTO;
 import org.zhj.devdeck.model.User;
+import org.zhj.devdeck.ratelimit.RateLimitAlgorithm;
 import org.zhj.devdeck.enums.ResultCode;
 import org.zhj.devdeck.request.*;
 import org.zhj.devdeck.response.CaptchaResponse;
 import org.zhj.devdeck.response.LoginResponse;
+import org.zhj.devdeck.utils.IpUtils;
 import org.zhj.devdeck.utils.UserContext;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * 用户行文控制器
  *
@@ -37,8 +42,9 @@ public class UserController {
      * @return
      */
     @PostMapping("/verification-code")
+    @RateLimit(name = "verification-code", permits = 5, window = 1, unit = TimeUnit.MINUTES)
     public Result<String> getVerificationCode(@RequestBody @Valid SendEmailCodeRequest request, HttpServletRequest httpRequest) {
-        String ip = getClientIp(httpRequest);
+        String ip = IpUtils.getClientIp(httpRequest);
         userService.sendVerificationCode(request.getEmail(), request.getCaptchaUuid(), request.getCaptchaCode(),request.getType() , ip);
         return Result.success("验证码发送成功");
     }
@@ -48,12 +54,15 @@ public class UserController {
      * @return
      */
     @PostMapping("/captcha")
+    @RateLimit(name = "captcha", algorithm = RateLimitAlgorithm.TOKEN_BUCKET, permits = 20, window = 1, unit = TimeUnit.MINUTES)
+    @RateLimit(name = "captcha:global", by = RateLimit.Dimension.GLOBAL, algorithm = RateLimitAlgorithm.TOKEN_BUCKET, permits = 500)
     public Result<CaptchaResponse> getCaptcha(@RequestBody @Valid CaptchaRequest request) {
         return Result.success(userService.generateCaptcha(request.getUuid()));
     }
 
 
     @PostMapping("/login")
+    @RateLimit(name = "login", permits = 10, window = 1, unit = TimeUnit.MINUTES)
     public Result<LoginResponse> loginByPassword(@RequestBody @Validated(LoginRequest.PasswordLogin.class) LoginRequest request) {
         LoginResponse response = userService.loginByPassword(request.getEmail(), request.getPassword());
         if (ObjectUtils.isEmpty(request)) {
@@ -63,6 +72,7 @@ public class UserController {
     }
 
     @PostMapping("/login/code")
+    @RateLimit(name = "login", permits = 10, window = 1, unit = TimeUnit.MINUTES)
     public Result<LoginResponse> loginByCode(@RequestBody @Validated(LoginRequest.CodeLogin.class) LoginRequest request) {
         LoginResponse response = userService.loginByCode(request.getEmail(), request.getCode());
         if (ObjectUtils.isEmpty(response)) {
@@ -99,7 +109,9 @@ public class UserController {
 
     @PostMapping("/update-avatar")
     public Result<String> updateAvatar(@RequestBody @Validated(UserUpdateRequest.Avatar.class) UserUpdateRequest request) {
-        User user = UserContext.require();
+        // 上下文中的用户来自共享的资料缓存，不能直接修改
+        User user = new User();
+        user.setId(UserContext.require().getId());
         user.setAvatarUrl(request.getAvatarUrl());
         userService.updateAvatar(user);
         return Result.success("头像更新成功");
@@ -107,7 +119,8 @@ public class UserController {
 
     @PutMapping("/nickname")
     public Result<String> updateUser(@RequestBody @Validated(UserUpdateRequest.Nickname.class) UserUpdateRequest request) {
-        User user = UserContext.require();
+        User user = new User();
+        user.setId(UserContext.require().getId());
         user.setNickname(request.getNickname());
         userService.updateNickname(user);
         return Result.success("用户信息更新成功");
@@ -120,31 +133,4 @@ public class UserController {
         BeanUtils.copyProperties(user, response);
         return Result.success(response);
     }
-
-    /** 获取客户端IP
-     * @param request
-     * @return */
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_CLIENT_IP");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("HTTP_X_FORWARDED_FOR");
-        }
-        if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        // 对于通过多个代理的情况，第一个IP为客户端真实IP
-        if (ip != null && ip.contains(",")) {
-            ip = ip.split(",")[0].trim();
-        }
-        return ip;
-    }
 }
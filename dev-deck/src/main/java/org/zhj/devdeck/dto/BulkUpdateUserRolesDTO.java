@@ -0,0 +1,27 @@
+package org.zhj.devdeck.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量更新用户角色DTO
+ */
+@Data
+public class BulkUpdateUserRolesDTO {
+
+    /**
+     * 用户UUID列表
+     */
+    private List<String> userUuids;
+
+    /**
+     * 需要添加的角色ID列表
+     */
+    private List<Integer> roleIds;
+
+    /**
+     * 需要删除的角色ID列表
+     */
+    private List<Integer> roleIdsToDelete;
+}
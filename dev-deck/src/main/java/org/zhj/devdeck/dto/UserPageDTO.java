@@ -13,5 +13,7 @@ public class UserPageDTO {
     private Integer pageSize;
     private String nickName;
     private String email;
+    /** 游标分页：上一页返回的 nextCursor */
+    private String after;
 
 }
@@ -11,6 +11,7 @@ public enum AuthErrorCode {
     INVALID_TOKEN(401, "Token验证失败"),
     TOKEN_MISMATCH(401, "Token与服务器记录不一致"),
     TOKEN_PARSE_ERROR(902, "Token解析异常"),
+    PERMISSION_DENIED(403, "无权访问该资源"),
     AUTH_SYSTEM_ERROR(999, "认证系统异常");
     
     private final int code;
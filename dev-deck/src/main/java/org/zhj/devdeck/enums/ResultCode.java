@@ -14,6 +14,8 @@ public enum ResultCode {
     FAIL(400, "失败"),
     UNAUTHORIZED(401, "未认证"),
     FORBIDDEN(403, "禁止访问"),
+    SERVICE_BUSY(503, "服务繁忙，请稍后重试"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁，请稍后再试"),
     NOT_FOUND(404, "未找到"),
     INTERNAL_SERVER_ERROR(999, "服务器开小差"),
     INVALID_PARAMETER(400, "参数有误"),
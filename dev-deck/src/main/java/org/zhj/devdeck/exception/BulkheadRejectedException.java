@@ -0,0 +1,20 @@
+package org.zhj.devdeck.exception;
+
+import lombok.Getter;
+import org.zhj.devdeck.enums.ResultCode;
+
+/**
+ * 舱壁拒绝：等待下游资源许可超时
+ * <p>
+ * 可能在借出数据库连接时抛出，经 MyBatis、事务管理器层层包装后才到达全局异常处理，需按异常链识别
+ */
+@Getter
+public class BulkheadRejectedException extends QuizException {
+
+    private final String bulkheadName;
+
+    public BulkheadRejectedException(String bulkheadName) {
+        super(ResultCode.SERVICE_BUSY.getCode(), ResultCode.SERVICE_BUSY.getMessage());
+        this.bulkheadName = bulkheadName;
+    }
+}
@@ -1,20 +1,21 @@
 package org.zhj.devdeck.filter;
 
 import com.alibaba.fastjson.JSONObject;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.zhj.devdeck.cache.SessionCache;
+import org.zhj.devdeck.cache.UserProfileCache;
 import org.zhj.devdeck.common.Result;
-import org.zhj.devdeck.constant.RedisConstant;
 import org.zhj.devdeck.model.User;
 import org.zhj.devdeck.enums.AuthErrorCode;
 import org.zhj.devdeck.exception.AuthException;
@@ -23,7 +24,6 @@ import org.zhj.devdeck.utils.UserContext;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.concurrent.TimeUnit;
 
 /**
  * token过滤器
@@ -35,7 +35,8 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class TokenFilter extends OncePerRequestFilter {
 
-    private final StringRedisTemplate redisTemplate;
+    private final SessionCache sessionCache;
+    private final UserProfileCache userProfileCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -51,17 +52,15 @@ public class TokenFilter extends OncePerRequestFilter {
                 filterChain.doFilter(request, response);
                 return;
             }
-            // 校验 Token 基础有效性
+            // 校验 Token 并解析令牌主体（只验签一次）
             String token = extractToken(request);
-            if (!JwtUtils.validateToken(token)) {
-                throw new AuthException("Token验证失败", AuthErrorCode.INVALID_TOKEN);
+            JwtUtils.Principal principal = parsePrincipalFromToken(token);
+            // 按ID读取用户资料，并校验 uuid 与会话版本
+            User user = resolveUser(principal);
+            // 校验令牌一致性（优先读节点内会话缓存，续期异步节流执行）
+            if (!sessionCache.validate(user.getId(), token)) {
+                throw new AuthException(AuthErrorCode.TOKEN_MISMATCH.getDesc(), AuthErrorCode.TOKEN_MISMATCH);
             }
-            // 解析用户信息
-            User user = parseUserFromToken(token);
-            // 校验 Redis 令牌一致性
-            validateTokenInRedis(user.getId(), token);
-            // 刷新 Token 有效期
-            refreshTokenExpiration(user.getId());
             // 构建用户请求上下文
             buildAuthentication(user);
             filterChain.doFilter(request, response);
@@ -92,34 +91,40 @@ public class TokenFilter extends OncePerRequestFilter {
 
     private String extractToken(HttpServletRequest request) {
         String token = request.getHeader("Authorization");
-        token = token.replace("Bearer ", "");
+        if (StringUtils.hasText(token)) {
+            token = token.replace("Bearer ", "");
+        }
         if (!StringUtils.hasText(token)) {
             throw new AuthException(AuthErrorCode.MISSING_TOKEN.getDesc(), AuthErrorCode.MISSING_TOKEN);
         }
         return token;
     }
 
-    private User parseUserFromToken(String token) {
+    private JwtUtils.Principal parsePrincipalFromToken(String token) {
+        JwtUtils.Principal principal;
         try {
-            String userJson = JwtUtils.getUserFromToken(token);
-            return JSONObject.parseObject(userJson, User.class);
+            principal = JwtUtils.parsePrincipal(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.error("Token验证失败: {}", ex.getMessage());
+            throw new AuthException("Token验证失败", AuthErrorCode.INVALID_TOKEN);
         } catch (Exception ex) {
             throw new AuthException(AuthErrorCode.TOKEN_PARSE_ERROR.getDesc(), AuthErrorCode.TOKEN_PARSE_ERROR, ex);
         }
+        if (principal.getUserId() == null) {
+            throw new AuthException(AuthErrorCode.TOKEN_PARSE_ERROR.getDesc(), AuthErrorCode.TOKEN_PARSE_ERROR);
+        }
+        return principal;
     }
 
-    private void validateTokenInRedis(Integer userId, String token) {
-        String redisKey = RedisConstant.TOKEN_PREFIX + userId;
-        String redisToken = redisTemplate.opsForValue().get(redisKey);
-
-        if (!token.equals(redisToken)) {
+    private User resolveUser(JwtUtils.Principal principal) {
+        User user = userProfileCache.get(principal.getUserId());
+        // 用户已注销、或修改密码后会话版本递增，旧 token 均不再有效
+        if (user == null
+                || !user.getUuid().equals(principal.getUuid())
+                || JwtUtils.sessionVersionOf(user) != principal.getSessionVersion()) {
             throw new AuthException(AuthErrorCode.TOKEN_MISMATCH.getDesc(), AuthErrorCode.TOKEN_MISMATCH);
         }
-    }
-
-    private void refreshTokenExpiration(Integer userId) {
-        String redisKey = RedisConstant.TOKEN_PREFIX + userId;
-        redisTemplate.expire(redisKey, 30, TimeUnit.MINUTES);
+        return user;
     }
 
 }
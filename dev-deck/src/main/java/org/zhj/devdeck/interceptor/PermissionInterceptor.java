@@ -0,0 +1,43 @@
+package org.zhj.devdeck.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.zhj.devdeck.annotation.RequiresPermission;
+import org.zhj.devdeck.cache.PermissionEngine;
+import org.zhj.devdeck.enums.AuthErrorCode;
+import org.zhj.devdeck.exception.AuthException;
+import org.zhj.devdeck.model.User;
+import org.zhj.devdeck.utils.UserContext;
+
+/**
+ * 权限拦截器，校验 {@link RequiresPermission}，全程不访问数据库
+ */
+@Component
+@RequiredArgsConstructor
+public class PermissionInterceptor implements HandlerInterceptor {
+
+    private final PermissionEngine permissionEngine;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        RequiresPermission required = method.getMethodAnnotation(RequiresPermission.class);
+        if (required == null) {
+            required = method.getBeanType().getAnnotation(RequiresPermission.class);
+        }
+        if (required == null) {
+            return true;
+        }
+        Integer userId = UserContext.get().map(User::getId).orElse(null);
+        if (userId == null || !permissionEngine.hasPermission(userId, required.value())) {
+            throw new AuthException(AuthErrorCode.PERMISSION_DENIED.getDesc(), AuthErrorCode.PERMISSION_DENIED);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package org.zhj.devdeck.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.zhj.devdeck.annotation.RateLimit;
+import org.zhj.devdeck.enums.ResultCode;
+import org.zhj.devdeck.exception.QuizException;
+import org.zhj.devdeck.model.User;
+import org.zhj.devdeck.ratelimit.RateLimiter;
+import org.zhj.devdeck.utils.IpUtils;
+import org.zhj.devdeck.utils.UserContext;
+
+import java.util.Set;
+
+/**
+ * 限流拦截器，校验 {@link RateLimit}
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Set<RateLimit> rules = AnnotatedElementUtils.findMergedRepeatableAnnotations(method.getMethod(), RateLimit.class);
+        for (RateLimit rule : rules) {
+            String key = rule.name() + ":" + subject(rule.by(), request);
+            if (!rateLimiter.tryAcquire(key, rule.algorithm(), rule.permits(), rule.unit().toMillis(rule.window()))) {
+                throw new QuizException(ResultCode.TOO_MANY_REQUESTS.getCode(), ResultCode.TOO_MANY_REQUESTS.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private String subject(RateLimit.Dimension dimension, HttpServletRequest request) {
+        return switch (dimension) {
+            case GLOBAL -> "global";
+            case USER -> UserContext.get().map(User::getId)
+                    .map(id -> "user:" + id)
+                    .orElseGet(() -> "ip:" + IpUtils.getClientIp(request));
+            case IP -> "ip:" + IpUtils.getClientIp(request);
+        };
+    }
+}
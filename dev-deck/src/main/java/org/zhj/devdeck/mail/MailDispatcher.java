@@ -0,0 +1,262 @@
+package org.zhj.devdeck.mail;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.bulkhead.Bulkhead;
+import org.zhj.devdeck.enums.ResultCode;
+import org.zhj.devdeck.exception.QuizException;
+import org.zhj.devdeck.response.MailQueueStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步邮件发送队列
+ * <p>
+ * 请求线程只负责入队，队列满时直接拒绝（背压），不阻塞请求。
+ * 固定数量的工作线程各自持有一个已连接的 SMTP Transport 并复用，空闲超时后断开；
+ * 发送失败按指数退避重试，重试耗尽后放弃并计数。队列只在内存中，进程退出时未发送的邮件会丢失，
+ * 验证码已存入 Redis，用户可重新获取。
+ * 本地联调可将 mail.host/mail.port 指向 MailHog、GreenMail 等假 SMTP 服务，并关闭 mail.auth。
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_BASE_MILLIS = 1000;
+    // 工作线程空闲超过该时间断开 SMTP 连接，避免被服务端踢掉后首次发送失败
+    private static final long IDLE_DISCONNECT_SECONDS = 30;
+    private static final String SMTP_TIMEOUT_MILLIS = "10000";
+
+    @Value("${mail.host}")
+    private String host;
+    @Value("${mail.port:25}")
+    private int port;
+    @Value("${mail.auth:true}")
+    private boolean auth;
+    @Value("${mail.username}")
+    private String username;
+    @Value("${mail.password}")
+    private String password;
+    @Value("${mail.dispatch.workers:2}")
+    private int workerCount;
+    @Value("${mail.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Autowired
+    @Qualifier("smtpBulkhead")
+    private Bulkhead smtpBulkhead;
+
+    private Session session;
+    private BlockingQueue<MailTask> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mail-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retrying = new LongAdder();
+    private final AtomicLong lastSendMillis = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", host);
+        properties.put("mail.smtp.port", String.valueOf(port));
+        properties.put("mail.smtp.auth", String.valueOf(auth));
+        properties.put("mail.smtp.connectiontimeout", SMTP_TIMEOUT_MILLIS);
+        properties.put("mail.smtp.timeout", SMTP_TIMEOUT_MILLIS);
+        properties.put("mail.smtp.writetimeout", SMTP_TIMEOUT_MILLIS);
+        // Session 线程安全，全局共享
+        session = Session.getInstance(properties);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::work, "mail-sender-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.forEach(Thread::interrupt);
+        if (!queue.isEmpty()) {
+            log.warn("应用关闭，{}封邮件未发送", queue.size());
+        }
+    }
+
+    /**
+     * 邮件入队，立即返回
+     *
+     * @throws QuizException 队列已满
+     */
+    public void enqueue(String to, String subject, String text) {
+        if (!queue.offer(new MailTask(to, subject, text))) {
+            rejected.increment();
+            throw new QuizException(ResultCode.SERVICE_BUSY.getCode(), "邮件发送繁忙，请稍后重试");
+        }
+        enqueued.increment();
+    }
+
+    /**
+     * 队列是否还有空位；仅作预检，入队时仍可能因并发被拒绝
+     */
+    public boolean hasCapacity() {
+        return queue.remainingCapacity() > 0;
+    }
+
+    public MailQueueStatus status() {
+        MailQueueStatus status = new MailQueueStatus();
+        status.setWorkers(workers.size());
+        status.setQueued(queue.size());
+        status.setCapacity(queueCapacity);
+        status.setRetrying(retrying.sum());
+        status.setEnqueued(enqueued.sum());
+        status.setRejected(rejected.sum());
+        status.setSent(sent.sum());
+        status.setRetried(retried.sum());
+        status.setFailed(failed.sum());
+        status.setLastSendMillis(lastSendMillis.get());
+        return status;
+    }
+
+    private void work() {
+        Transport transport = null;
+        while (running) {
+            MailTask task;
+            try {
+                task = queue.poll(IDLE_DISCONNECT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (task == null) {
+                transport = disconnect(transport);
+                continue;
+            }
+            try {
+                transport = connected(transport);
+                send(transport, task);
+                sent.increment();
+            } catch (Exception e) {
+                // 连接可能已损坏，下次发送重新建立
+                transport = disconnect(transport);
+                retryLater(task, e);
+            }
+        }
+        disconnect(transport);
+    }
+
+    private Transport connected(Transport transport) throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        Transport fresh = session.getTransport("smtp");
+        if (auth) {
+            fresh.connect(host, port, username, password);
+        } else {
+            fresh.connect();
+        }
+        return fresh;
+    }
+
+    private void send(Transport transport, MailTask task) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(username));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(task.to));
+        message.setSubject(task.subject);
+        message.setText(task.text);
+        message.saveChanges();
+        long start = System.currentTimeMillis();
+        smtpBulkhead.acquire();
+        try {
+            transport.sendMessage(message, new Address[]{new InternetAddress(task.to)});
+        } finally {
+            smtpBulkhead.release();
+        }
+        lastSendMillis.set(System.currentTimeMillis() - start);
+    }
+
+    private void retryLater(MailTask task, Exception cause) {
+        task.attempts++;
+        if (task.attempts >= MAX_ATTEMPTS || !running) {
+            failed.increment();
+            log.error("邮件发送失败，已放弃：to={}, attempts={}", mask(task.to), task.attempts, cause);
+            return;
+        }
+        retried.increment();
+        retrying.increment();
+        long delay = BACKOFF_BASE_MILLIS << (task.attempts - 1);
+        log.warn("邮件发送失败，{}ms后重试：to={}, attempts={}, cause={}", delay, mask(task.to), task.attempts, cause.getMessage());
+        retryScheduler.schedule(() -> {
+            retrying.decrement();
+            if (!queue.offer(task)) {
+                failed.increment();
+                log.error("邮件重试入队失败，队列已满：to={}", mask(task.to));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private Transport disconnect(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("关闭SMTP连接失败", e);
+            }
+        }
+        return null;
+    }
+
+    // 日志中只保留邮箱首字符与域名
+    private static String mask(String email) {
+        int at = email.indexOf('@');
+        if (at < 0) {
+            return "***";
+        }
+        return (at == 0 ? "" : email.charAt(0)) + "***" + email.substring(at);
+    }
+
+    private static final class MailTask {
+        private final String to;
+        private final String subject;
+        private final String text;
+        private int attempts;
+
+        private MailTask(String to, String subject, String text) {
+            this.to = to;
+            this.subject = subject;
+            this.text = text;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package org.zhj.devdeck.mapper;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.zhj.devdeck.model.QuestionFavorite;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.zhj.devdeck.request.QuestionPageRequest;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
+
+import java.util.Date;
+import java.util.List;
 
 /**
  * @author 86155
@@ -11,4 +18,37 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 @Mapper
 public interface QuestionFavoriteMapper extends BaseMapper<QuestionFavorite> {
 
+    /**
+     * 收藏题目分页，按收藏时间倒序
+     *
+     * @param pattern 关键词 LIKE 模式，为空表示不搜索
+     */
+    Page<QuestionSummaryVO> favoritePage(@Param("page") Page<QuestionSummaryVO> page,
+                                         @Param("userId") Integer userId,
+                                         @Param("query") QuestionPageRequest query,
+                                         @Param("pattern") String pattern);
+
+    /**
+     * 收藏题目游标分页，取 (收藏时间, 题目ID) 严格小于游标的 limit 条
+     */
+    List<QuestionSummaryVO> favoriteCursor(@Param("userId") Integer userId,
+                                           @Param("query") QuestionPageRequest query,
+                                           @Param("pattern") String pattern,
+                                           @Param("afterTime") Date afterTime,
+                                           @Param("afterId") Integer afterId,
+                                           @Param("limit") int limit);
+
+    /**
+     * 收藏（INSERT ... ON CONFLICT），恢复已软删除的记录
+     *
+     * @return 新增或恢复时返回1，已收藏时返回0
+     */
+    int upsertFavorite(@Param("userId") Integer userId, @Param("questionId") Integer questionId);
+
+    /**
+     * 取消收藏（软删除）
+     *
+     * @return 实际删除时返回1，未收藏时返回0
+     */
+    int softDeleteFavorite(@Param("userId") Integer userId, @Param("questionId") Integer questionId);
 } 
\ No newline at end of file
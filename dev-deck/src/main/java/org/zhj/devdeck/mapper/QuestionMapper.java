@@ -1,8 +1,15 @@
 package org.zhj.devdeck.mapper;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.zhj.devdeck.model.Question;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.zhj.devdeck.request.QuestionPageRequest;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
+
+import java.util.List;
+import java.util.Map;
 
 /**
 * @author 86155
@@ -13,6 +20,22 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 @Mapper
 public interface QuestionMapper extends BaseMapper<Question> {
 
+    /**
+     * 关键词搜索（search_text 三元组索引），按相关度排序
+     * 仅返回列表字段，highlight 中为描述中命中位置附近的片段
+     */
+    Page<QuestionSummaryVO> searchPage(@Param("page") Page<QuestionSummaryVO> page,
+                                       @Param("query") QuestionPageRequest query,
+                                       @Param("pattern") String pattern,
+                                       @Param("keyword") String keyword);
+
+    /**
+     * 批量累加计数列（提交次数、收藏数等），一条 UPDATE 完成
+     *
+     * @param column 计数列名，仅由代码传入常量
+     * @param deltas 每项包含 id 与 delta
+     */
+    int incrementCounts(@Param("column") String column, @Param("deltas") List<Map<String, Object>> deltas);
 }
 
 
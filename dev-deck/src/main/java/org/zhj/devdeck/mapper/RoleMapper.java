@@ -1,9 +1,13 @@
 package org.zhj.devdeck.mapper;
 
+import org.apache.ibatis.annotations.Param;
 import org.zhj.devdeck.model.Role;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.zhj.devdeck.vo.RoleVO;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
 * @author 86155
 * @description 针对表【role】的数据库操作Mapper
@@ -12,7 +16,10 @@ import org.zhj.devdeck.vo.RoleVO;
 */
 public interface RoleMapper extends BaseMapper<Role> {
 
-    RoleVO getRoleDetail(Integer id);
+    /**
+     * 批量查询角色详情（含权限）
+     */
+    List<RoleVO> listRoleDetails(@Param("ids") Collection<? extends Integer> ids);
 }
 
 
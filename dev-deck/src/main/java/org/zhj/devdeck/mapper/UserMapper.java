@@ -3,12 +3,12 @@ package org.zhj.devdeck.mapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Param;
-import org.zhj.devdeck.dto.UserPageDTO;
 import org.zhj.devdeck.model.User;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.zhj.devdeck.vo.UserDetailVO;
 import org.zhj.devdeck.vo.UserVO;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,8 +23,28 @@ public interface UserMapper extends BaseMapper<User> {
 
     UserDetailVO getUserDetail(@Param("uuid") String uuid);
 
+    /**
+     * 后台用户分页，不含角色
+     *
+     * @param nickNamePattern 已转义的 ILIKE 模式，为空时不过滤
+     * @param emailPattern    已转义的 ILIKE 模式，为空时不过滤
+     */
     IPage<UserVO> voPage(@Param("page") Page<UserVO> page,
-                         @Param("query") UserPageDTO query);
+                         @Param("nickNamePattern") String nickNamePattern,
+                         @Param("emailPattern") String emailPattern);
+
+    /**
+     * 后台用户游标分页，按ID升序取 afterId 之后的 limit 条，不含角色
+     */
+    List<UserVO> voCursor(@Param("nickNamePattern") String nickNamePattern,
+                          @Param("emailPattern") String emailPattern,
+                          @Param("afterId") Integer afterId,
+                          @Param("limit") int limit);
+
+    /**
+     * 批量查询用户的主角色，返回的 UserVO 只含 id 与 role；没有角色的用户不返回
+     */
+    List<UserVO> listPrimaryRoles(@Param("userIds") Collection<Integer> userIds);
 }
 
 
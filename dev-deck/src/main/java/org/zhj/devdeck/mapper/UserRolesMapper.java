@@ -1,8 +1,11 @@
 package org.zhj.devdeck.mapper;
 
+import org.apache.ibatis.annotations.Param;
 import org.zhj.devdeck.model.UserRoles;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
+import java.util.Collection;
+
 /**
 * @author 86155
 * @description 针对表【user_roles】的数据库操作Mapper
@@ -11,6 +14,23 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 */
 public interface UserRolesMapper extends BaseMapper<UserRoles> {
 
+    /**
+     * 为用户批量分配角色：不存在则插入，已软删除则恢复，已分配则不变；已删除的角色被忽略
+     *
+     * @return 实际新增或恢复的行数
+     */
+    int bulkAssign(@Param("userIds") Collection<Integer> userIds,
+                   @Param("roleIds") Collection<Integer> roleIds,
+                   @Param("operatorId") Integer operatorId);
+
+    /**
+     * 批量收回用户的角色（软删除）
+     *
+     * @return 实际删除的行数
+     */
+    int bulkRevoke(@Param("userIds") Collection<Integer> userIds,
+                   @Param("roleIds") Collection<Integer> roleIds,
+                   @Param("operatorId") Integer operatorId);
 }
 
 
@@ -68,6 +68,11 @@ public class Question extends BaseEntity{
      */
     private Integer submitCount;
 
+    /**
+     * 收藏数
+     */
+    private Integer favoriteCount;
+
     /**
      * 解题提示
      */
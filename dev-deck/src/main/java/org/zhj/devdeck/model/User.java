@@ -68,4 +68,9 @@ public class User {
     private String githubId;
 
     private String githubLogin;
+
+    /**
+     * 会话版本，修改密码时递增，使已签发的 token 失效
+     */
+    private Integer sessionVersion;
 }
\ No newline at end of file
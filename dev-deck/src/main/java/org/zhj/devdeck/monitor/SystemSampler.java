@@ -0,0 +1,359 @@
+package org.zhj.devdeck.monitor;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.response.SystemStatus;
+import org.zhj.devdeck.response.SystemStatusHistory;
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HardwareAbstractionLayer;
+import oshi.hardware.NetworkIF;
+import oshi.software.os.FileSystem;
+import oshi.software.os.OSFileStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 主机与 JVM 状态采样器
+ * <p>
+ * 后台线程按固定间隔读取 OSHI 与 JMX 指标，写入按列存放的定长基本类型环形缓冲区；
+ * 缓冲区在启动时一次分配，每次采样只覆写数组元素，读取时才复制出最近 N 分钟的数据。
+ * 磁盘使用率变化缓慢且读取成本较高，每分钟采样一次，其余采样沿用上次的值。
+ * 每次采样消耗的线程 CPU 时间占采样间隔的比例记录在 samplerCpu 中。
+ */
+@Slf4j
+@Component
+public class SystemSampler {
+
+    private static final float MB = 1024f * 1024f;
+    private static final long DISK_SAMPLE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    // 网卡列表偶尔变化（容器重建网络、热插拔），定期重新获取
+    private static final long NETWORK_REFRESH_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Value("${monitor.sample-interval-seconds:5}")
+    private int intervalSeconds;
+    @Value("${monitor.history-minutes:60}")
+    private int historyMinutes;
+
+    private CentralProcessor processor;
+    private GlobalMemory memory;
+    private HardwareAbstractionLayer hardware;
+    private FileSystem fileSystem;
+    private List<NetworkIF> networks;
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    // 只由采样线程访问的上次读数
+    private long[] prevTicks;
+    private long prevNetworkBytes;
+    private long prevGcCount;
+    private long prevGcMillis;
+    private long lastSampleNanos;
+    private long lastDiskSample;
+    private long lastNetworkRefresh;
+    private float disk;
+    private boolean ready;
+
+    // 环形缓冲区，每个指标一列
+    private int capacity;
+    private long[] times;
+    private float[] cpu;
+    private float[] mem;
+    private float[] disks;
+    private float[] network;
+    private float[] heapUsed;
+    private float[] heapMax;
+    private int[] gcCount;
+    private float[] gcMillis;
+    private int[] threads;
+    private float[] samplerCpu;
+    private int next;
+    private int count;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        allocate();
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "system-sampler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // OSHI 首次初始化较慢，放到采样线程中执行，不拖慢启动
+        executor.execute(this::initQuietly);
+        executor.scheduleWithFixedDelay(this::sampleQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 按保留时长与采样间隔一次分配全部列
+     */
+    void allocate() {
+        capacity = Math.max(1, historyMinutes * 60 / intervalSeconds);
+        times = new long[capacity];
+        cpu = new float[capacity];
+        mem = new float[capacity];
+        disks = new float[capacity];
+        network = new float[capacity];
+        heapUsed = new float[capacity];
+        heapMax = new float[capacity];
+        gcCount = new int[capacity];
+        gcMillis = new float[capacity];
+        threads = new int[capacity];
+        samplerCpu = new float[capacity];
+        next = 0;
+        count = 0;
+    }
+
+    /**
+     * 最近一次采样，尚未采样时返回 null
+     */
+    public SystemStatus current() {
+        lock.lock();
+        try {
+            if (count == 0) {
+                return null;
+            }
+            int i = (next - 1 + capacity) % capacity;
+            SystemStatus status = new SystemStatus();
+            status.setTimestamp(times[i]);
+            status.setCpu(cpu[i]);
+            status.setMemory(mem[i]);
+            status.setDisk(disks[i]);
+            status.setNetwork(network[i]);
+            status.setHeapUsed(heapUsed[i]);
+            status.setHeapMax(heapMax[i]);
+            status.setGcCount(gcCount[i]);
+            status.setGcMillis(gcMillis[i]);
+            status.setThreads(threads[i]);
+            status.setSamplerCpu(samplerCpu[i]);
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 最近若干分钟的采样序列，按时间升序；超出保留时长时返回全部
+     */
+    public SystemStatusHistory history(int minutes) {
+        SystemStatusHistory history = new SystemStatusHistory();
+        history.setIntervalSeconds(intervalSeconds);
+        lock.lock();
+        try {
+            int window = Math.max(1, Math.min(minutes, historyMinutes));
+            int n = Math.min(count, window * 60 / intervalSeconds);
+            int start = (next - n + capacity) % capacity;
+            history.setTimestamps(copy(times, start, n));
+            history.setCpu(copy(cpu, start, n));
+            history.setMemory(copy(mem, start, n));
+            history.setDisk(copy(disks, start, n));
+            history.setNetwork(copy(network, start, n));
+            history.setHeapUsed(copy(heapUsed, start, n));
+            history.setHeapMax(copy(heapMax, start, n));
+            history.setGcCount(copy(gcCount, start, n));
+            history.setGcMillis(copy(gcMillis, start, n));
+            history.setThreads(copy(threads, start, n));
+            history.setSamplerCpu(copy(samplerCpu, start, n));
+        } finally {
+            lock.unlock();
+        }
+        return history;
+    }
+
+    private void initQuietly() {
+        try {
+            init();
+            ready = true;
+        } catch (Exception e) {
+            log.error("系统状态采样器初始化失败，停止采样", e);
+        }
+    }
+
+    private void init() {
+        SystemInfo systemInfo = new SystemInfo();
+        hardware = systemInfo.getHardware();
+        processor = hardware.getProcessor();
+        memory = hardware.getMemory();
+        fileSystem = systemInfo.getOperatingSystem().getFileSystem();
+        prevTicks = processor.getSystemCpuLoadTicks();
+        refreshNetworks(System.currentTimeMillis());
+        prevNetworkBytes = networkBytes();
+        prevGcCount = gcCountTotal();
+        prevGcMillis = gcMillisTotal();
+        disk = diskUsage();
+        lastDiskSample = System.currentTimeMillis();
+        lastSampleNanos = System.nanoTime();
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (Exception e) {
+            // 单次采样失败不影响后续调度
+            log.warn("系统状态采样失败", e);
+        }
+    }
+
+    private void sample() {
+        if (!ready) {
+            return;
+        }
+        long cpuStart = threadBean.getCurrentThreadCpuTime();
+        long nowNanos = System.nanoTime();
+        long now = System.currentTimeMillis();
+        float seconds = Math.max(1, nowNanos - lastSampleNanos) / 1e9f;
+        lastSampleNanos = nowNanos;
+
+        float cpuLoad = (float) (processor.getSystemCpuLoadBetweenTicks(prevTicks) * 100);
+        prevTicks = processor.getSystemCpuLoadTicks();
+
+        long total = memory.getTotal();
+        float memoryUsage = total == 0 ? 0 : (total - memory.getAvailable()) * 100f / total;
+
+        if (now - lastDiskSample >= DISK_SAMPLE_MILLIS) {
+            disk = diskUsage();
+            lastDiskSample = now;
+        }
+
+        if (now - lastNetworkRefresh >= NETWORK_REFRESH_MILLIS) {
+            refreshNetworks(now);
+            // 网卡列表变化后不计算本次差值
+            prevNetworkBytes = networkBytes();
+        }
+        long networkBytes = networkBytes();
+        // 计数器回绕或网卡消失时差值可能为负
+        float networkKbps = Math.max(0, networkBytes - prevNetworkBytes) / 1024f / seconds;
+        prevNetworkBytes = networkBytes;
+
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        long gcCountTotal = gcCountTotal();
+        long gcMillisTotal = gcMillisTotal();
+
+        int gcCountDelta = (int) (gcCountTotal - prevGcCount);
+        float gcMillisDelta = gcMillisTotal - prevGcMillis;
+        prevGcCount = gcCountTotal;
+        prevGcMillis = gcMillisTotal;
+        int threadCount = threadBean.getThreadCount();
+        // 单核百分比：CPU 纳秒 / 间隔纳秒 * 100
+        float samplerCpuPercent = (threadBean.getCurrentThreadCpuTime() - cpuStart) / 1e7f / intervalSeconds;
+
+        record(now, cpuLoad, memoryUsage, disk, networkKbps, heap, gcCountDelta, gcMillisDelta,
+                threadCount, samplerCpuPercent);
+    }
+
+    /**
+     * 写入一次采样，覆盖最旧的槽位
+     */
+    void record(long now, float cpuLoad, float memoryUsage, float diskUsage, float networkKbps, MemoryUsage heap,
+                int gcCountDelta, float gcMillisDelta, int threadCount, float samplerCpuPercent) {
+        lock.lock();
+        try {
+            int i = next;
+            times[i] = now;
+            cpu[i] = cpuLoad;
+            mem[i] = memoryUsage;
+            disks[i] = diskUsage;
+            network[i] = networkKbps;
+            heapUsed[i] = heap.getUsed() / MB;
+            heapMax[i] = heap.getMax() < 0 ? heap.getCommitted() / MB : heap.getMax() / MB;
+            gcCount[i] = gcCountDelta;
+            gcMillis[i] = gcMillisDelta;
+            threads[i] = threadCount;
+            samplerCpu[i] = samplerCpuPercent;
+            next = (i + 1) % capacity;
+            count = Math.min(count + 1, capacity);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 所有本地文件系统中使用率最高者
+     */
+    private float diskUsage() {
+        float max = 0;
+        for (OSFileStore store : fileSystem.getFileStores(true)) {
+            long total = store.getTotalSpace();
+            if (total > 0) {
+                max = Math.max(max, (total - store.getUsableSpace()) * 100f / total);
+            }
+        }
+        return max;
+    }
+
+    private void refreshNetworks(long now) {
+        networks = hardware.getNetworkIFs(false);
+        lastNetworkRefresh = now;
+    }
+
+    private long networkBytes() {
+        long bytes = 0;
+        for (NetworkIF networkIF : networks) {
+            networkIF.updateAttributes();
+            bytes += networkIF.getBytesRecv() + networkIF.getBytesSent();
+        }
+        return bytes;
+    }
+
+    private long gcCountTotal() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : gcBeans) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private long gcMillisTotal() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : gcBeans) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private long[] copy(long[] column, int start, int n) {
+        long[] result = new long[n];
+        for (int k = 0; k < n; k++) {
+            result[k] = column[(start + k) % capacity];
+        }
+        return result;
+    }
+
+    private float[] copy(float[] column, int start, int n) {
+        float[] result = new float[n];
+        for (int k = 0; k < n; k++) {
+            result[k] = column[(start + k) % capacity];
+        }
+        return result;
+    }
+
+    private int[] copy(int[] column, int start, int n) {
+        int[] result = new int[n];
+        for (int k = 0; k < n; k++) {
+            result[k] = column[(start + k) % capacity];
+        }
+        return result;
+    }
+}
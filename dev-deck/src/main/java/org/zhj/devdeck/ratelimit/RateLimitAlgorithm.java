@@ -0,0 +1,15 @@
+package org.zhj.devdeck.ratelimit;
+
+/**
+ * 限流算法
+ */
+public enum RateLimitAlgorithm {
+    /**
+     * 滑动窗口计数：按上一窗口剩余比例加权估算，O(1) 内存
+     */
+    SLIDING_WINDOW,
+    /**
+     * 令牌桶：允许突发到桶容量，按固定速率补充
+     */
+    TOKEN_BUCKET
+}
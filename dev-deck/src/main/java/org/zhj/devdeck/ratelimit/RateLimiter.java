@@ -0,0 +1,179 @@
+package org.zhj.devdeck.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.zhj.devdeck.constant.RedisConstant;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 限流器
+ * <p>
+ * 每次判定只执行一个 Lua 脚本，计数与过期时间在同一次原子操作内完成。
+ * 本节点先做一级预过滤：记录本节点在当前固定窗口内已放行的次数，
+ * 已达到该规则在一个窗口内最多可能放行的次数时，全局必然超限，直接拒绝而不访问 Redis，
+ * 持续刷接口的请求因此大部分在本地被挡掉。
+ * Redis 不可用时放行（fail-open），避免限流组件拖垮登录等核心接口。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    private static final int LOCAL_MAX_SIZE = 100_000;
+    private static final Duration LOCAL_EXPIRE = Duration.ofMinutes(10);
+
+    /**
+     * KEYS[1] 当前窗口计数，KEYS[2] 上一窗口计数；
+     * ARGV[1] 上限，ARGV[2] 窗口毫秒数，ARGV[3] 上一窗口在滑动窗口内的剩余比例
+     */
+    private static final RedisScript<Long> SLIDING_WINDOW = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "local previous = tonumber(redis.call('GET', KEYS[2]) or '0') "
+                    + "if previous * tonumber(ARGV[3]) + current >= tonumber(ARGV[1]) then return 0 end "
+                    + "if redis.call('INCR', KEYS[1]) == 1 then redis.call('PEXPIRE', KEYS[1], tonumber(ARGV[2]) * 2) end "
+                    + "return 1", Long.class);
+
+    /**
+     * KEYS[1] 令牌桶；ARGV[1] 容量，ARGV[2] 补满一桶的毫秒数，ARGV[3] 当前毫秒时间戳
+     */
+    private static final RedisScript<Long> TOKEN_BUCKET = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) "
+                    + "local refill = tonumber(ARGV[2]) "
+                    + "local now = tonumber(ARGV[3]) "
+                    + "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts') "
+                    + "local tokens = tonumber(bucket[1]) "
+                    + "local ts = tonumber(bucket[2]) "
+                    + "if tokens == nil then tokens = capacity ts = now end "
+                    + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * capacity / refill) "
+                    + "local allowed = 0 "
+                    + "if tokens >= 1 then tokens = tokens - 1 allowed = 1 end "
+                    + "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now)) "
+                    + "redis.call('PEXPIRE', KEYS[1], refill) "
+                    + "return allowed", Long.class);
+
+    /**
+     * 退还许可。滑动窗口：KEYS[1] 当前窗口计数；令牌桶：KEYS[1] 令牌桶，ARGV[1] 容量
+     */
+    private static final RedisScript<Long> SLIDING_WINDOW_REFUND = new DefaultRedisScript<>(
+            "if tonumber(redis.call('GET', KEYS[1]) or '0') > 0 then redis.call('DECR', KEYS[1]) end "
+                    + "return 1", Long.class);
+
+    private static final RedisScript<Long> TOKEN_BUCKET_REFUND = new DefaultRedisScript<>(
+            "local tokens = tonumber(redis.call('HGET', KEYS[1], 'tokens')) "
+                    + "if tokens ~= nil then "
+                    + "redis.call('HSET', KEYS[1], 'tokens', tostring(math.min(tonumber(ARGV[1]), tokens + 1))) end "
+                    + "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final Cache<String, LocalWindow> localWindows = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterAccess(LOCAL_EXPIRE)
+            .build();
+
+    /**
+     * 尝试获取一个许可
+     *
+     * @param key          限流对象，如 "login:ip:1.2.3.4"
+     * @param permits      每个窗口允许的请求数（令牌桶为容量）
+     * @param windowMillis 窗口长度（令牌桶为补满一桶的时间）
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, RateLimitAlgorithm algorithm, int permits, long windowMillis) {
+        long now = System.currentTimeMillis();
+        long windowIndex = now / windowMillis;
+        // 一个固定窗口内全局最多放行：滑动窗口为 permits，令牌桶为满桶加一个窗口的补充量
+        int ceiling = algorithm == RateLimitAlgorithm.SLIDING_WINDOW ? permits : permits * 2;
+        LocalWindow local = localWindows.get(key, k -> new LocalWindow());
+        if (local.reached(windowIndex, ceiling)) {
+            return false;
+        }
+        boolean allowed;
+        try {
+            allowed = algorithm == RateLimitAlgorithm.SLIDING_WINDOW
+                    ? slidingWindow(key, permits, windowMillis, now, windowIndex)
+                    : tokenBucket(key, permits, windowMillis, now);
+        } catch (Exception e) {
+            log.warn("限流脚本执行失败，放行：key={}", key, e);
+            return true;
+        }
+        if (allowed) {
+            local.record(windowIndex);
+        }
+        return allowed;
+    }
+
+    /**
+     * 退还一次已获取的许可，用于放行后下游处理失败、不应计入限额的场景
+     * <p>
+     * 滑动窗口退还到当前窗口，跨窗口时可能少退一次；令牌桶不超过容量。失败时只记录日志。
+     */
+    public void refund(String key, RateLimitAlgorithm algorithm, int permits, long windowMillis) {
+        long windowIndex = System.currentTimeMillis() / windowMillis;
+        LocalWindow local = localWindows.getIfPresent(key);
+        if (local != null) {
+            local.revoke(windowIndex);
+        }
+        try {
+            if (algorithm == RateLimitAlgorithm.SLIDING_WINDOW) {
+                redisTemplate.execute(SLIDING_WINDOW_REFUND,
+                        List.of(RedisConstant.RATE_LIMIT_PREFIX + key + ":" + windowIndex));
+            } else {
+                redisTemplate.execute(TOKEN_BUCKET_REFUND,
+                        List.of(RedisConstant.RATE_LIMIT_PREFIX + key), String.valueOf(permits));
+            }
+        } catch (Exception e) {
+            log.warn("限流许可退还失败：key={}", key, e);
+        }
+    }
+
+    private boolean slidingWindow(String key, int permits, long windowMillis, long now, long windowIndex) {
+        String prefix = RedisConstant.RATE_LIMIT_PREFIX + key + ":";
+        double previousWeight = 1 - (double) (now % windowMillis) / windowMillis;
+        Long result = redisTemplate.execute(SLIDING_WINDOW,
+                List.of(prefix + windowIndex, prefix + (windowIndex - 1)),
+                String.valueOf(permits), String.valueOf(windowMillis), String.valueOf(previousWeight));
+        return result != null && result == 1;
+    }
+
+    private boolean tokenBucket(String key, int permits, long windowMillis, long now) {
+        Long result = redisTemplate.execute(TOKEN_BUCKET,
+                List.of(RedisConstant.RATE_LIMIT_PREFIX + key),
+                String.valueOf(permits), String.valueOf(windowMillis), String.valueOf(now));
+        return result != null && result == 1;
+    }
+
+    /**
+     * 本节点当前固定窗口内已放行的次数
+     */
+    private static final class LocalWindow {
+        private long windowIndex;
+        private int allowed;
+
+        private synchronized boolean reached(long index, int ceiling) {
+            return windowIndex == index && allowed >= ceiling;
+        }
+
+        private synchronized void record(long index) {
+            if (windowIndex != index) {
+                windowIndex = index;
+                allowed = 0;
+            }
+            allowed++;
+        }
+
+        private synchronized void revoke(long index) {
+            if (windowIndex == index && allowed > 0) {
+                allowed--;
+            }
+        }
+    }
+}
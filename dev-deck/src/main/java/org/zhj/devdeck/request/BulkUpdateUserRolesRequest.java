@@ -0,0 +1,35 @@
+package org.zhj.devdeck.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量更新用户角色请求
+ * <p>
+ * 对所有用户统一先删除 roleIdsToDelete，再添加 roleIds
+ */
+@Data
+public class BulkUpdateUserRolesRequest {
+
+    /**
+     * 用户UUID列表
+     */
+    @NotEmpty(message = "用户UUID不能为空")
+    @Size(max = 10000, message = "单次最多更新10000个用户")
+    private List<String> userUuids;
+
+    /**
+     * 需要添加的角色ID列表
+     */
+    @Size(max = 100, message = "单次最多添加100个角色")
+    private List<Integer> roleIds;
+
+    /**
+     * 需要删除的角色ID列表
+     */
+    @Size(max = 100, message = "单次最多删除100个角色")
+    private List<Integer> roleIdsToDelete;
+}
@@ -0,0 +1,74 @@
+package org.zhj.devdeck.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 组卷请求
+ * <p>
+ * 例：10道题，其中简单50%、中等30%、困难20%，来自分类X及其子分类，排除已做过的题
+ */
+@Data
+public class ComposeQuizRequest {
+
+    @NotNull(message = "题目数量不能为空")
+    @Min(value = 1, message = "请求数量应在1-50之间")
+    @Max(value = 50, message = "请求数量应在1-50之间")
+    private Integer count;
+
+    /**
+     * 分类ID，为空表示全部分类
+     */
+    private Integer categoryId;
+
+    /**
+     * 是否包含子分类
+     */
+    private Boolean includeSubcategories = true;
+
+    /**
+     * 配额列表，按权重分配题目数量；为空时在范围内均匀抽取
+     */
+    @Valid
+    @Size(max = 20, message = "单次最多设置20个配额")
+    private List<Quota> quotas = new ArrayList<>();
+
+    /**
+     * 需要排除的题目ID（如已做过的题）
+     */
+    @Size(max = 1000, message = "单次最多排除1000道题")
+    private List<Integer> excludeIds = new ArrayList<>();
+
+    @Data
+    public static class Quota {
+
+        /**
+         * 难度（QuestionDifficulty），为空表示不限
+         */
+        private Integer difficulty;
+
+        /**
+         * 题型（QuestionType），为空表示不限
+         */
+        private Integer type;
+
+        /**
+         * 分类ID（须在请求分类范围内），为空表示不限
+         */
+        private Integer categoryId;
+
+        /**
+         * 权重（如百分比）
+         */
+        @NotNull(message = "配额权重不能为空")
+        @Min(value = 1, message = "配额权重必须大于0")
+        private Integer weight;
+    }
+}
@@ -13,6 +13,11 @@ public class QuestionPageRequest {
     private Integer size = 10;
     
     private String title;
+
+    /**
+     * 全文搜索关键词（匹配标题、描述、提示，按相关度排序）
+     */
+    private String q;
     
     private Integer categoryId;
     
@@ -27,4 +32,9 @@ public class QuestionPageRequest {
     private String sortBy = "createdAt";
     
     private String sortOrder = "desc";
+
+    /**
+     * 游标分页：上一页返回的 nextCursor
+     */
+    private String after;
 } 
\ No newline at end of file
@@ -15,4 +15,6 @@ public class UserPageRequest {
     private Integer pageSize = 10;
     private String nickName;
     private String email;
+    /** 游标分页：上一页返回的 nextCursor */
+    private String after;
 }
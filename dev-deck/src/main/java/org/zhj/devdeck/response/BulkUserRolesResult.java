@@ -0,0 +1,23 @@
+package org.zhj.devdeck.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量更新用户角色结果
+ */
+@Data
+public class BulkUserRolesResult {
+
+    // 找到的用户数
+    private int users;
+    // 不存在或已删除的用户UUID
+    private List<String> missingUuids = new ArrayList<>();
+    // 实际新增或恢复的分配数
+    private int assigned;
+    // 实际删除的分配数
+    private int revoked;
+
+}
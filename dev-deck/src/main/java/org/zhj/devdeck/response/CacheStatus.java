@@ -0,0 +1,27 @@
+package org.zhj.devdeck.response;
+
+import lombok.Data;
+
+/**
+ * 缓存命中统计
+ *
+ * @Author 86155
+ * @Date 2025/5/25
+ */
+@Data
+public class CacheStatus {
+
+    private String name;
+    // 本地缓存
+    private long localSize;
+    private long localHits;
+    private long localMisses;
+    private long localEvictions;
+    // Redis缓存
+    private long redisHits;
+    private long redisMisses;
+    // 回源数据库次数
+    private long loads;
+    private double hitRate;
+
+}
@@ -0,0 +1,24 @@
+package org.zhj.devdeck.response;
+
+import lombok.Data;
+
+/**
+ * 图形验证码预生成池统计
+ */
+@Data
+public class CaptchaPoolStatus {
+
+    private int producers;
+    // 池中可用数量与容量
+    private int depth;
+    private int capacity;
+    private long produced;
+    // 最近一个采样周期的补充速率（张/秒）
+    private double refillPerSecond;
+    private double avgRenderMillis;
+    private long popped;
+    // 池为空时在请求线程现场生成的次数
+    private long misses;
+    private double avgPopMicros;
+
+}
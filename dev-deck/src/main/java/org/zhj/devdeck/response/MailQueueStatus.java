@@ -0,0 +1,27 @@
+package org.zhj.devdeck.response;
+
+import lombok.Data;
+
+/**
+ * 邮件发送队列统计
+ */
+@Data
+public class MailQueueStatus {
+
+    private int workers;
+    // 队列积压与容量
+    private int queued;
+    private int capacity;
+    // 等待退避重试的邮件数
+    private long retrying;
+    private long enqueued;
+    // 队列已满被拒绝的邮件数
+    private long rejected;
+    private long sent;
+    private long retried;
+    // 重试耗尽后放弃的邮件数
+    private long failed;
+    // 最近一次发送耗时（毫秒）
+    private long lastSendMillis;
+
+}
@@ -11,9 +11,23 @@ import lombok.Data;
 @Data
 public class SystemStatus {
 
+    // 采样时间（毫秒时间戳）
+    private long timestamp;
+    // 主机 CPU、内存、磁盘使用率（%），磁盘取使用率最高的本地文件系统
     private float cpu;
     private float memory;
     private float disk;
+    // 网卡收发合计（KB/s）
     private float network;
 
+    // JVM 堆已用与上限（MB）
+    private float heapUsed;
+    private float heapMax;
+    // 采样间隔内的 GC 次数与耗时（毫秒）
+    private int gcCount;
+    private float gcMillis;
+    private int threads;
+    // 采样本身占用的 CPU（单核 %）
+    private float samplerCpu;
+
 }
@@ -0,0 +1,26 @@
+package org.zhj.devdeck.response;
+
+import lombok.Data;
+
+/**
+ * 系统状态时间序列，按列返回，各数组下标一一对应、按时间升序
+ * <p>
+ * 各指标含义与单位同 {@link SystemStatus}
+ */
+@Data
+public class SystemStatusHistory {
+
+    private int intervalSeconds;
+    private long[] timestamps;
+    private float[] cpu;
+    private float[] memory;
+    private float[] disk;
+    private float[] network;
+    private float[] heapUsed;
+    private float[] heapMax;
+    private int[] gcCount;
+    private float[] gcMillis;
+    private int[] threads;
+    private float[] samplerCpu;
+
+}
@@ -1,10 +1,14 @@
 package org.zhj.devdeck.service;
 
+import org.zhj.devdeck.cache.CategoryTree;
 import org.zhj.devdeck.model.Category;
 import org.zhj.devdeck.vo.CategoryVO;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
 * @author 86155
@@ -33,4 +37,24 @@ public interface CategoryService extends IService<Category> {
      */
     boolean isSlugUnique(String slug, Integer excludeId);
 
+    /**
+     * 获取分类及其所有子孙分类的ID
+     */
+    Set<Integer> getSelfAndDescendantIds(Integer categoryId);
+
+    /**
+     * 批量获取分类名称（读内存快照）
+     */
+    Map<Integer, String> getCategoryNames(Collection<Integer> categoryIds);
+
+    /**
+     * 获取当前分类树快照
+     */
+    CategoryTree getSnapshot();
+
+    /**
+     * 重新加载分类树快照（分类增删改后调用）
+     */
+    CategoryTree refreshSnapshot();
+
 }
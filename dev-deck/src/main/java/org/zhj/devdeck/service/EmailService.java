@@ -5,5 +5,10 @@ package org.zhj.devdeck.service;
  */
 public interface EmailService {
 
+    /**
+     * 当前是否还能接收新的邮件
+     */
+    boolean isAvailable();
+
     void sendVerificationCode(String to, String code);
 }
@@ -1,11 +1,14 @@
 package org.zhj.devdeck.service;
 
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.model.QuestionFavorite;
 import org.zhj.devdeck.request.QuestionPageRequest;
-import org.zhj.devdeck.vo.QuestionVO;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
+import java.util.List;
+
 /**
  * @author 86155
  * @description 针对表【question_favorite】的数据库操作Service
@@ -27,8 +30,18 @@ public interface QuestionFavoriteService extends IService<QuestionFavorite> {
      */
     boolean isFavorited(Integer userId, Integer questionId);
 
+    /**
+     * 批量检查收藏状态，结果与 questionIds 顺序一致
+     */
+    List<Boolean> getFavoriteStatuses(Integer userId, List<Integer> questionIds);
+
     /**
      * 获取用户收藏的题目列表
      */
-    Page<QuestionVO> getFavoriteQuestions(Integer userId, QuestionPageRequest request);
+    Page<QuestionSummaryVO> getFavoriteQuestions(Integer userId, QuestionPageRequest request);
+
+    /**
+     * 游标分页获取用户收藏的题目列表（按收藏时间倒序）
+     */
+    CursorPage<QuestionSummaryVO> getFavoriteQuestionCursor(Integer userId, QuestionPageRequest request);
 } 
\ No newline at end of file
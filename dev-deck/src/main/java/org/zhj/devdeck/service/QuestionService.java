@@ -1,8 +1,12 @@
 package org.zhj.devdeck.service;
 
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.model.Question;
+import org.zhj.devdeck.request.ComposeQuizRequest;
 import org.zhj.devdeck.request.QuestionPageRequest;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
 import org.zhj.devdeck.vo.QuestionVO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
@@ -18,18 +22,38 @@ public interface QuestionService extends IService<Question> {
     /**
      * 分页查询题目
      */
-    Page<QuestionVO> getQuestionPage(QuestionPageRequest request);
+    Page<QuestionSummaryVO> getQuestionPage(QuestionPageRequest request);
+
+    /**
+     * 游标分页查询题目（不统计总数）
+     */
+    CursorPage<QuestionSummaryVO> getQuestionCursor(QuestionPageRequest request);
+
+    /**
+     * 根据分类ID游标分页获取题目列表
+     */
+    CursorPage<QuestionSummaryVO> getQuestionCursorByCategory(Integer categoryId, String after, Integer size);
 
     /**
      * 根据分类ID获取题目列表
      */
-    Page<QuestionVO> getQuestionsByCategory(Integer categoryId, Integer page, Integer size);
+    Page<QuestionSummaryVO> getQuestionsByCategory(Integer categoryId, Integer page, Integer size);
 
     /**
      * 根据slug获取题目
      */
     Question getQuestionBySlug(String slug);
 
+    /**
+     * 获取题目详情（走详情缓存），不存在时返回 null
+     */
+    QuestionVO getQuestionDetail(Integer id);
+
+    /**
+     * 根据slug获取题目详情（走详情缓存），不存在时返回 null
+     */
+    QuestionVO getQuestionDetailBySlug(String slug);
+
     /**
      * 检查slug是否唯一
      */
@@ -40,10 +64,40 @@ public interface QuestionService extends IService<Question> {
      */
     QuestionVO convertToVO(Question question);
 
+    /**
+     * 批量转换为VO对象（分类名称一次性查询）
+     */
+    List<QuestionVO> convertToVOs(List<Question> questions);
+
+    /**
+     * 批量转换为列表VO对象
+     */
+    List<QuestionSummaryVO> convertToSummaryVOs(List<Question> questions);
+
+    /**
+     * 填充列表项的类型、难度、分类名称及未落库的提交次数
+     */
+    void fillSummaryNames(List<QuestionSummaryVO> records);
+
+    /**
+     * 填充搜索命中摘要
+     */
+    void fillHighlight(List<QuestionSummaryVO> records, String q);
+
+    /**
+     * 分页结果转换为列表VO分页
+     */
+    Page<QuestionSummaryVO> toSummaryPage(Page<Question> questionPage);
+
+    /**
+     * 仅查询列表字段的条件构造器
+     */
+    LambdaQueryWrapper<Question> summaryWrapper();
+
     /**
      * 获取我的题目列表
      */
-    Page<QuestionVO> getMyQuestions(Integer userId, QuestionPageRequest request);
+    Page<QuestionSummaryVO> getMyQuestions(Integer userId, QuestionPageRequest request);
 
     /**
      * 获取一个随机题目
@@ -55,4 +109,9 @@ public interface QuestionService extends IService<Question> {
      */
     List<QuestionVO> getRandomQuestions(Integer count);
 
+    /**
+     * 按难度/题型/分类配额组卷
+     */
+    List<QuestionVO> composeQuiz(ComposeQuizRequest request);
+
 }
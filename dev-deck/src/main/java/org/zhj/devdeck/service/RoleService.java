@@ -4,6 +4,9 @@ import org.zhj.devdeck.model.Role;
 import com.baomidou.mybatisplus.extension.service.IService;
 import org.zhj.devdeck.vo.RoleVO;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
 * @author 86155
 * @description 针对表【role】的数据库操作Service
@@ -12,4 +15,9 @@ import org.zhj.devdeck.vo.RoleVO;
 public interface RoleService extends IService<Role> {
 
     RoleVO getRoleDetail(Integer id);
+
+    /**
+     * 批量获取角色详情，按角色ID返回；已删除的角色不在结果中
+     */
+    Map<Integer, RoleVO> getRoleDetails(Collection<Integer> ids);
 }
@@ -2,6 +2,9 @@ package org.zhj.devdeck.service;
 
 import org.zhj.devdeck.model.UserRoles;
 import com.baomidou.mybatisplus.extension.service.IService;
+import org.zhj.devdeck.response.BulkUserRolesResult;
+
+import java.util.Collection;
 
 /**
 * @author 86155
@@ -10,4 +13,11 @@ import com.baomidou.mybatisplus.extension.service.IService;
 */
 public interface UserRolesService extends IService<UserRoles> {
 
+    /**
+     * 在同一事务中对一组用户先收回 roleIdsToDelete，再分配 roleIds
+     *
+     * @return 只填充 assigned 与 revoked
+     */
+    BulkUserRolesResult updateRoles(Collection<Integer> userIds, Collection<Integer> roleIds,
+                                    Collection<Integer> roleIdsToDelete, Integer operatorId);
 }
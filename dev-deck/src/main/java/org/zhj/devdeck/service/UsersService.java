@@ -1,6 +1,7 @@
 package org.zhj.devdeck.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.dto.UserPageDTO;
 import org.zhj.devdeck.model.User;
 import com.baomidou.mybatisplus.extension.service.IService;
@@ -21,4 +22,9 @@ public interface UsersService extends IService<User> {
     UserDetailVO getUserDetail(String uuid);
 
     IPage<UserVO> voPage(UserPageDTO dto);
+
+    /**
+     * 后台用户游标分页，按ID升序
+     */
+    CursorPage<UserVO> voCursor(UserPageDTO dto);
 }
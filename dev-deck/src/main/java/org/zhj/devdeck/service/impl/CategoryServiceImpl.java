@@ -2,18 +2,21 @@ package org.zhj.devdeck.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.zhj.devdeck.cache.CategoryTree;
 import org.zhj.devdeck.model.Category;
 import org.zhj.devdeck.service.CategoryService;
 import org.zhj.devdeck.mapper.CategoryMapper;
 import org.zhj.devdeck.vo.CategoryVO;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
 * @author 86155
@@ -27,21 +30,43 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category>
     @Autowired
     private CategoryMapper categoryMapper;
 
+    // 当前分类树快照，变更时整体替换
+    private volatile CategoryTree snapshot;
+    // 重建期间会访问数据库，不用 synchronized 以免钉住虚拟线程的载体线程
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
     @Override
     public List<CategoryVO> getCategoryTree() {
-        List<Category> allCategories = list(new LambdaQueryWrapper<Category>()
-                .orderByAsc(Category::getSortWeight));
-        
-        return buildCategoryTree(allCategories, null);
+        return getSnapshot().getTree();
     }
 
     @Override
     public List<CategoryVO> getEnabledCategories() {
-        List<Category> enabledCategories = list(new LambdaQueryWrapper<Category>()
-                .eq(Category::getIsEnabled, "Y")
-                .orderByAsc(Category::getSortWeight));
-        
-        return buildCategoryTree(enabledCategories, null);
+        return getSnapshot().getEnabledTree();
+    }
+
+    @Override
+    public CategoryTree getSnapshot() {
+        CategoryTree current = snapshot;
+        return current != null ? current : refreshSnapshot();
+    }
+
+    /**
+     * 重新加载分类并替换快照；定时执行以同步其他节点的变更
+     */
+    @Override
+    @Scheduled(initialDelay = 5, fixedDelay = 5, timeUnit = TimeUnit.MINUTES)
+    public CategoryTree refreshSnapshot() {
+        refreshLock.lock();
+        try {
+            List<Category> allCategories = list(new LambdaQueryWrapper<Category>()
+                    .orderByAsc(Category::getSortWeight));
+            CategoryTree fresh = CategoryTree.of(allCategories);
+            snapshot = fresh;
+            return fresh;
+        } finally {
+            refreshLock.unlock();
+        }
     }
 
     @Override
@@ -62,30 +87,14 @@ public class CategoryServiceImpl extends ServiceImpl<CategoryMapper, Category>
         return count(wrapper) == 0;
     }
 
-    private List<CategoryVO> buildCategoryTree(List<Category> categories, Integer parentId) {
-        List<CategoryVO> result = new ArrayList<>();
-        
-        Map<Integer, List<Category>> categoryMap = categories.stream()
-                .collect(Collectors.groupingBy(category -> 
-                    category.getParentId() == null ? 0 : category.getParentId()));
-        
-        List<Category> rootCategories = categoryMap.get(parentId == null ? 0 : parentId);
-        if (rootCategories == null) {
-            return result;
-        }
-        
-        for (Category category : rootCategories) {
-            CategoryVO vo = new CategoryVO();
-            BeanUtils.copyProperties(category, vo);
-            
-            // 递归构建子分类
-            List<CategoryVO> children = buildCategoryTree(categories, category.getId());
-            vo.setChildren(children);
-            
-            result.add(vo);
-        }
-        
-        return result;
+    @Override
+    public Set<Integer> getSelfAndDescendantIds(Integer categoryId) {
+        return getSnapshot().getSelfAndDescendantIds(categoryId);
+    }
+
+    @Override
+    public Map<Integer, String> getCategoryNames(Collection<Integer> categoryIds) {
+        return getSnapshot().getNames(categoryIds);
     }
 }
 
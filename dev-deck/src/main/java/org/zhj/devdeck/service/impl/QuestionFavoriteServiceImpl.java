@@ -1,22 +1,24 @@
 package org.zhj.devdeck.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.zhj.devdeck.cache.FavoriteCounter;
+import org.zhj.devdeck.cache.FavoriteSet;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.mapper.QuestionFavoriteMapper;
-import org.zhj.devdeck.model.Question;
 import org.zhj.devdeck.model.QuestionFavorite;
 import org.zhj.devdeck.request.QuestionPageRequest;
 import org.zhj.devdeck.service.QuestionFavoriteService;
 import org.zhj.devdeck.service.QuestionService;
-import org.zhj.devdeck.vo.QuestionVO;
+import org.zhj.devdeck.utils.CursorUtils;
+import org.zhj.devdeck.utils.SearchUtils;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
 
+import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author 86155
@@ -26,94 +28,90 @@ import java.util.stream.Collectors;
 public class QuestionFavoriteServiceImpl extends ServiceImpl<QuestionFavoriteMapper, QuestionFavorite>
         implements QuestionFavoriteService {
 
+    // 游标分页单页最大条数
+    private static final int MAX_CURSOR_SIZE = 100;
+    private static final String CURSOR_SORT = "favoritedAt";
+
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private QuestionFavoriteMapper questionFavoriteMapper;
+
+    @Autowired
+    private FavoriteSet favoriteSet;
+
+    @Autowired
+    private FavoriteCounter favoriteCounter;
+
     @Override
     public boolean favoriteQuestion(Integer userId, Integer questionId) {
-        // 检查是否已经收藏
-        if (isFavorited(userId, questionId)) {
-            return true;
+        // 单条语句完成插入或恢复，重复收藏不报错
+        if (questionFavoriteMapper.upsertFavorite(userId, questionId) > 0) {
+            favoriteSet.add(userId, questionId);
+            favoriteCounter.add(questionId, 1);
         }
-
-        QuestionFavorite favorite = new QuestionFavorite();
-        favorite.setUserId(userId);
-        favorite.setQuestionId(questionId);
-        
-        return save(favorite);
+        return true;
     }
 
     @Override
     public boolean unfavoriteQuestion(Integer userId, Integer questionId) {
-        LambdaQueryWrapper<QuestionFavorite> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(QuestionFavorite::getUserId, userId)
-               .eq(QuestionFavorite::getQuestionId, questionId);
-        
-        return remove(wrapper);
+        // 未收藏时视为成功，只有实际删除时才调整计数
+        if (questionFavoriteMapper.softDeleteFavorite(userId, questionId) > 0) {
+            favoriteSet.remove(userId, questionId);
+            favoriteCounter.add(questionId, -1);
+        }
+        return true;
     }
 
     @Override
     public boolean isFavorited(Integer userId, Integer questionId) {
-        LambdaQueryWrapper<QuestionFavorite> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(QuestionFavorite::getUserId, userId)
-               .eq(QuestionFavorite::getQuestionId, questionId);
-        
-        return count(wrapper) > 0;
+        return getFavoriteStatuses(userId, List.of(questionId)).get(0);
     }
 
     @Override
-    public Page<QuestionVO> getFavoriteQuestions(Integer userId, QuestionPageRequest request) {
-        // 先获取用户收藏的题目ID列表
-        LambdaQueryWrapper<QuestionFavorite> favoriteWrapper = new LambdaQueryWrapper<>();
-        favoriteWrapper.eq(QuestionFavorite::getUserId, userId)
-                      .orderByDesc(QuestionFavorite::getCreatedAt);
-        
-        List<QuestionFavorite> favorites = list(favoriteWrapper);
-        
-        if (favorites.isEmpty()) {
-            // 如果没有收藏，返回空页面
-            Page<QuestionVO> emptyPage = new Page<>(request.getPage(), request.getSize());
-            emptyPage.setTotal(0);
-            emptyPage.setRecords(List.of());
-            return emptyPage;
+    public List<Boolean> getFavoriteStatuses(Integer userId, List<Integer> questionIds) {
+        if (questionIds.isEmpty()) {
+            return List.of();
         }
+        return favoriteSet.contains(userId, questionIds);
+    }
 
-        // 获取收藏的题目ID列表
-        List<Integer> questionIds = favorites.stream()
-                .map(QuestionFavorite::getQuestionId)
-                .collect(Collectors.toList());
-
-        // 查询题目详情
-        Page<Question> page = new Page<>(request.getPage(), request.getSize());
-        LambdaQueryWrapper<Question> questionWrapper = new LambdaQueryWrapper<>();
-        questionWrapper.in(Question::getId, questionIds);
-        
-        // 条件查询
-        if (StringUtils.hasText(request.getTitle())) {
-            questionWrapper.like(Question::getTitle, request.getTitle());
-        }
-        if (request.getCategoryId() != null) {
-            questionWrapper.eq(Question::getCategoryId, request.getCategoryId());
-        }
-        if (request.getType() != null) {
-            questionWrapper.eq(Question::getType, request.getType());
-        }
-        if (request.getDifficulty() != null) {
-            questionWrapper.eq(Question::getDifficulty, request.getDifficulty());
+    @Override
+    public Page<QuestionSummaryVO> getFavoriteQuestions(Integer userId, QuestionPageRequest request) {
+        // 收藏表与题目表联表查询，按收藏时间排序并在数据库中分页
+        Page<QuestionSummaryVO> page = questionFavoriteMapper.favoritePage(
+                new Page<>(request.getPage(), request.getSize()), userId, request, likePattern(request));
+        questionService.fillSummaryNames(page.getRecords());
+        questionService.fillHighlight(page.getRecords(), request.getQ());
+        return page;
+    }
+
+    @Override
+    public CursorPage<QuestionSummaryVO> getFavoriteQuestionCursor(Integer userId, QuestionPageRequest request) {
+        int size = request.getSize() == null || request.getSize() < 1 ? 10 : Math.min(request.getSize(), MAX_CURSOR_SIZE);
+        CursorUtils.Cursor cursor = CursorUtils.decode(request.getAfter(), CURSOR_SORT);
+        Date afterTime = cursor == null ? null : new Date(cursor.longValue());
+        Integer afterId = cursor == null ? null : cursor.getId();
+
+        // 多取一条用于判断是否还有下一页
+        List<QuestionSummaryVO> records = questionFavoriteMapper.favoriteCursor(
+                userId, request, likePattern(request), afterTime, afterId, size + 1);
+        CursorPage<QuestionSummaryVO> result = new CursorPage<>();
+        result.setSize(size);
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            QuestionSummaryVO last = records.get(size - 1);
+            result.setHasMore(true);
+            result.setNextCursor(CursorUtils.encode(CURSOR_SORT, last.getId(), last.getFavoritedAt().getTime()));
         }
-        
-        // 按收藏时间排序
-        questionWrapper.orderByDesc(Question::getCreatedAt);
-        
-        Page<Question> questionPage = questionService.page(page, questionWrapper);
-        
-        // 转换为VO
-        Page<QuestionVO> voPage = new Page<>();
-        BeanUtils.copyProperties(questionPage, voPage, "records");
-        voPage.setRecords(questionPage.getRecords().stream()
-                .map(questionService::convertToVO)
-                .collect(Collectors.toList()));
-        
-        return voPage;
+        questionService.fillSummaryNames(records);
+        questionService.fillHighlight(records, request.getQ());
+        result.setRecords(records);
+        return result;
+    }
+
+    private String likePattern(QuestionPageRequest request) {
+        return StringUtils.hasText(request.getQ()) ? SearchUtils.likePattern(request.getQ()) : null;
     }
 } 
\ No newline at end of file
@@ -1,25 +1,38 @@
 package org.zhj.devdeck.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
+import org.zhj.devdeck.cache.FavoriteCounter;
+import org.zhj.devdeck.cache.QuestionDetailCache;
+import org.zhj.devdeck.cache.QuestionIdIndex;
+import org.zhj.devdeck.cache.SubmitCounter;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.enums.QuestionDifficulty;
 import org.zhj.devdeck.enums.QuestionType;
-import org.zhj.devdeck.model.Category;
 import org.zhj.devdeck.model.Question;
+import org.zhj.devdeck.request.ComposeQuizRequest;
 import org.zhj.devdeck.request.QuestionPageRequest;
 import org.zhj.devdeck.service.CategoryService;
 import org.zhj.devdeck.service.QuestionService;
+import org.zhj.devdeck.utils.CursorUtils;
+import org.zhj.devdeck.utils.SearchUtils;
 import org.zhj.devdeck.mapper.QuestionMapper;
+import org.zhj.devdeck.vo.QuestionSummaryVO;
 import org.zhj.devdeck.vo.QuestionVO;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -31,37 +44,49 @@ import java.util.stream.Collectors;
 public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
     implements QuestionService{
 
+    // 游标分页单页最大条数
+    private static final int MAX_CURSOR_SIZE = 100;
+
     @Autowired
     private QuestionMapper questionMapper;
     
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private QuestionIdIndex questionIdIndex;
+
+    @Autowired
+    private SubmitCounter submitCounter;
+
+    @Autowired
+    private FavoriteCounter favoriteCounter;
+
+    @Autowired
+    private QuestionDetailCache questionDetailCache;
+
     @Override
-    public Page<QuestionVO> getQuestionPage(QuestionPageRequest request) {
+    public Page<QuestionSummaryVO> getQuestionPage(QuestionPageRequest request) {
+        // 关键词搜索：未指定标题/难度排序时按相关度排序
+        if (StringUtils.hasText(request.getQ())
+                && !"title".equals(request.getSortBy()) && !"difficulty".equals(request.getSortBy())
+                && !"favoriteCount".equals(request.getSortBy())) {
+            String keyword = request.getQ().trim();
+            Page<QuestionSummaryVO> searchPage = questionMapper.searchPage(
+                    new Page<>(request.getPage(), request.getSize()), request,
+                    SearchUtils.likePattern(keyword), keyword);
+            fillSummaryNames(searchPage.getRecords());
+            // 查询结果的 highlight 字段暂存描述片段，在此替换为高亮摘要
+            for (QuestionSummaryVO vo : searchPage.getRecords()) {
+                vo.setHighlight(SearchUtils.highlight(vo.getTitle(), vo.getHighlight(), keyword));
+            }
+            return searchPage;
+        }
+
         Page<Question> page = new Page<>(request.getPage(), request.getSize());
         
-        LambdaQueryWrapper<Question> wrapper = new LambdaQueryWrapper<>();
-        
         // 条件查询
-        if (StringUtils.hasText(request.getTitle())) {
-            wrapper.like(Question::getTitle, request.getTitle());
-        }
-        if (request.getCategoryId() != null) {
-            wrapper.eq(Question::getCategoryId, request.getCategoryId());
-        }
-        if (request.getType() != null) {
-            wrapper.eq(Question::getType, request.getType());
-        }
-        if (request.getDifficulty() != null) {
-            wrapper.eq(Question::getDifficulty, request.getDifficulty());
-        }
-        if (request.getIsOfficial() != null) {
-            wrapper.eq(Question::getIsOfficial, request.getIsOfficial());
-        }
-        if (request.getIsEnabled() != null) {
-            wrapper.eq(Question::getIsEnabled, request.getIsEnabled());
-        }
+        LambdaQueryWrapper<Question> wrapper = buildFilterWrapper(request);
         
         // 排序
         if ("title".equals(request.getSortBy())) {
@@ -76,6 +101,12 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
             } else {
                 wrapper.orderByDesc(Question::getDifficulty);
             }
+        } else if ("favoriteCount".equals(request.getSortBy())) {
+            if ("asc".equals(request.getSortOrder())) {
+                wrapper.orderByAsc(Question::getFavoriteCount);
+            } else {
+                wrapper.orderByDesc(Question::getFavoriteCount);
+            }
         } else {
             if ("asc".equals(request.getSortOrder())) {
                 wrapper.orderByAsc(Question::getCreatedAt);
@@ -87,20 +118,129 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
         Page<Question> questionPage = page(page, wrapper);
         
         // 转换为VO
-        Page<QuestionVO> voPage = new Page<>();
-        BeanUtils.copyProperties(questionPage, voPage, "records");
-        voPage.setRecords(questionPage.getRecords().stream()
-                .map(this::convertToVO)
-                .collect(java.util.stream.Collectors.toList()));
-        
+        Page<QuestionSummaryVO> voPage = toSummaryPage(questionPage);
+        fillHighlight(voPage.getRecords(), request.getQ());
         return voPage;
     }
 
     @Override
-    public Page<QuestionVO> getQuestionsByCategory(Integer categoryId, Integer page, Integer size) {
+    public CursorPage<QuestionSummaryVO> getQuestionCursor(QuestionPageRequest request) {
+        int size = request.getSize() == null || request.getSize() < 1 ? 10 : Math.min(request.getSize(), MAX_CURSOR_SIZE);
+        boolean asc = "asc".equals(request.getSortOrder());
+        String sortBy = "title".equals(request.getSortBy()) || "difficulty".equals(request.getSortBy())
+                || "favoriteCount".equals(request.getSortBy()) ? request.getSortBy() : "createdAt";
+        CursorUtils.Cursor cursor = CursorUtils.decode(request.getAfter(), sortBy);
+
+        LambdaQueryWrapper<Question> wrapper = buildFilterWrapper(request);
+        switch (sortBy) {
+            case "title" -> {
+                if (cursor != null) {
+                    applyKeyset(wrapper, Question::getTitle, cursor.getValue(), cursor.getId(), asc);
+                }
+                wrapper.orderBy(true, asc, Question::getTitle);
+            }
+            case "difficulty" -> {
+                if (cursor != null) {
+                    applyKeyset(wrapper, Question::getDifficulty, cursor.intValue(), cursor.getId(), asc);
+                }
+                wrapper.orderBy(true, asc, Question::getDifficulty);
+            }
+            case "favoriteCount" -> {
+                if (cursor != null) {
+                    applyKeyset(wrapper, Question::getFavoriteCount, cursor.intValue(), cursor.getId(), asc);
+                }
+                wrapper.orderBy(true, asc, Question::getFavoriteCount);
+            }
+            default -> {
+                if (cursor != null) {
+                    applyKeyset(wrapper, Question::getCreatedAt, new Date(cursor.longValue()), cursor.getId(), asc);
+                }
+                wrapper.orderBy(true, asc, Question::getCreatedAt);
+            }
+        }
+        // ID 作为次级排序键，保证游标唯一
+        wrapper.orderBy(true, asc, Question::getId);
+        // 多取一条用于判断是否还有下一页，不再执行 COUNT
+        wrapper.last("LIMIT " + (size + 1));
+
+        List<Question> questions = list(wrapper);
+        CursorPage<QuestionSummaryVO> result = new CursorPage<>();
+        result.setSize(size);
+        if (questions.size() > size) {
+            questions = questions.subList(0, size);
+            Question last = questions.get(size - 1);
+            Object value = switch (sortBy) {
+                case "title" -> last.getTitle();
+                case "difficulty" -> last.getDifficulty();
+                case "favoriteCount" -> last.getFavoriteCount();
+                default -> last.getCreatedAt().getTime();
+            };
+            result.setHasMore(true);
+            result.setNextCursor(CursorUtils.encode(sortBy, last.getId(), value));
+        }
+        result.setRecords(convertToSummaryVOs(questions));
+        fillHighlight(result.getRecords(), request.getQ());
+        return result;
+    }
+
+    @Override
+    public CursorPage<QuestionSummaryVO> getQuestionCursorByCategory(Integer categoryId, String after, Integer size) {
+        QuestionPageRequest request = new QuestionPageRequest();
+        request.setCategoryId(categoryId);
+        request.setIsEnabled(true);
+        request.setSize(size);
+        request.setAfter(after);
+        return getQuestionCursor(request);
+    }
+
+    /**
+     * 构建公共筛选条件（仅查询列表字段）
+     */
+    private LambdaQueryWrapper<Question> buildFilterWrapper(QuestionPageRequest request) {
+        LambdaQueryWrapper<Question> wrapper = summaryWrapper();
+        if (StringUtils.hasText(request.getTitle())) {
+            wrapper.like(Question::getTitle, request.getTitle());
+        }
+        if (request.getCategoryId() != null) {
+            wrapper.eq(Question::getCategoryId, request.getCategoryId());
+        }
+        if (request.getType() != null) {
+            wrapper.eq(Question::getType, request.getType());
+        }
+        if (request.getDifficulty() != null) {
+            wrapper.eq(Question::getDifficulty, request.getDifficulty());
+        }
+        if (request.getIsOfficial() != null) {
+            wrapper.eq(Question::getIsOfficial, request.getIsOfficial());
+        }
+        if (request.getIsEnabled() != null) {
+            wrapper.eq(Question::getIsEnabled, request.getIsEnabled());
+        }
+        if (StringUtils.hasText(request.getQ())) {
+            wrapper.apply("search_text ILIKE {0}", SearchUtils.likePattern(request.getQ()));
+        }
+        return wrapper;
+    }
+
+    /**
+     * 追加游标条件：(column, id) 严格位于游标之后
+     */
+    private <V> void applyKeyset(LambdaQueryWrapper<Question> wrapper, SFunction<Question, V> column,
+                                 V value, Integer id, boolean asc) {
+        if (asc) {
+            wrapper.and(w -> w.gt(column, value)
+                    .or(o -> o.eq(column, value).gt(Question::getId, id)));
+        } else {
+            wrapper.and(w -> w.lt(column, value)
+                    .or(o -> o.eq(column, value).lt(Question::getId, id)));
+        }
+    }
+
+    @Override
+    public Page<QuestionSummaryVO> getQuestionsByCategory(Integer categoryId, Integer page, Integer size) {
         Page<Question> questionPage = new Page<>(page, size);
         
-        LambdaQueryWrapper<Question> wrapper = new LambdaQueryWrapper<Question>()
+        LambdaQueryWrapper<Question> wrapper = summaryWrapper()
                 .eq(Question::getCategoryId, categoryId)
                 .eq(Question::getIsEnabled, true)
                 .orderByDesc(Question::getCreatedAt);
@@ -108,13 +248,7 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
         Page<Question> result = page(questionPage, wrapper);
         
         // 转换为VO
-        Page<QuestionVO> voPage = new Page<>();
-        BeanUtils.copyProperties(result, voPage, "records");
-        voPage.setRecords(result.getRecords().stream()
-                .map(this::convertToVO)
-                .collect(java.util.stream.Collectors.toList()));
-        
-        return voPage;
+        return toSummaryPage(result);
     }
 
     @Override
@@ -123,6 +257,48 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
                 .eq(Question::getSlug, slug));
     }
 
+    @Override
+    public QuestionVO getQuestionDetail(Integer id) {
+        return withPendingCounts(questionDetailCache.get(id, this::loadDetail));
+    }
+
+    @Override
+    public QuestionVO getQuestionDetailBySlug(String slug) {
+        Integer id = questionDetailCache.resolveSlug(slug, key -> {
+            Question question = getOne(new LambdaQueryWrapper<Question>()
+                    .select(Question::getId)
+                    .eq(Question::getSlug, key));
+            return question == null ? null : question.getId();
+        });
+        return id == null ? null : getQuestionDetail(id);
+    }
+
+    private QuestionVO loadDetail(Integer id) {
+        Question question = getById(id);
+        if (question == null) {
+            return null;
+        }
+        QuestionVO vo = convertToVO(question);
+        // 缓存中只保存已落库的计数，未落库增量在读取时合并
+        vo.setSubmitCount(question.getSubmitCount());
+        vo.setFavoriteCount(question.getFavoriteCount());
+        return vo;
+    }
+
+    /**
+     * 复制缓存对象并合并未落库的计数，避免修改缓存中的实例
+     */
+    private QuestionVO withPendingCounts(QuestionVO cached) {
+        if (cached == null) {
+            return null;
+        }
+        QuestionVO vo = new QuestionVO();
+        BeanUtils.copyProperties(cached, vo);
+        vo.setSubmitCount(submitCounter.merge(vo.getId(), vo.getSubmitCount()));
+        vo.setFavoriteCount(favoriteCounter.merge(vo.getId(), vo.getFavoriteCount()));
+        return vo;
+    }
+
     @Override
     public boolean isSlugUnique(String slug, Integer excludeId) {
         LambdaQueryWrapper<Question> wrapper = new LambdaQueryWrapper<Question>()
@@ -137,31 +313,101 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
 
     @Override
     public QuestionVO convertToVO(Question question) {
-        QuestionVO vo = new QuestionVO();
-        BeanUtils.copyProperties(question, vo);
-        
-        // 设置类型名称
-        vo.setTypeName(QuestionType.getNameByCode(question.getType()));
-        
-        // 设置难度名称
-        vo.setDifficultyName(QuestionDifficulty.getNameByCode(question.getDifficulty()));
-        
-        // 设置分类名称
-        if (question.getCategoryId() != null) {
-            Category category = categoryService.getById(question.getCategoryId());
-            if (category != null) {
-                vo.setCategoryName(category.getName());
-            }
+        return convertToVOs(List.of(question)).get(0);
+    }
+
+    @Override
+    public List<QuestionVO> convertToVOs(List<Question> questions) {
+        if (questions == null || questions.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 分类名称取自内存中的分类树快照，不再查询数据库
+        Map<Integer, String> categoryNames = categoryService.getCategoryNames(questions.stream()
+                .map(Question::getCategoryId)
+                .collect(Collectors.toSet()));
+
+        List<QuestionVO> result = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            QuestionVO vo = new QuestionVO();
+            BeanUtils.copyProperties(question, vo);
+
+            // 设置类型名称
+            vo.setTypeName(QuestionType.getNameByCode(question.getType()));
+
+            // 设置难度名称
+            vo.setDifficultyName(QuestionDifficulty.getNameByCode(question.getDifficulty()));
+
+            // 设置分类名称
+            vo.setCategoryName(categoryNames.get(question.getCategoryId()));
+
+            // 合并未落库的提交次数和收藏数
+            vo.setSubmitCount(submitCounter.merge(question.getId(), question.getSubmitCount()));
+            vo.setFavoriteCount(favoriteCounter.merge(question.getId(), question.getFavoriteCount()));
+
+            result.add(vo);
+        }
+        return result;
+    }
+
+    @Override
+    public List<QuestionSummaryVO> convertToSummaryVOs(List<Question> questions) {
+        List<QuestionSummaryVO> result = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            QuestionSummaryVO vo = new QuestionSummaryVO();
+            BeanUtils.copyProperties(question, vo);
+            result.add(vo);
+        }
+        fillSummaryNames(result);
+        return result;
+    }
+
+    @Override
+    public void fillSummaryNames(List<QuestionSummaryVO> records) {
+        Map<Integer, String> categoryNames = categoryService.getCategoryNames(records.stream()
+                .map(QuestionSummaryVO::getCategoryId)
+                .collect(Collectors.toSet()));
+        for (QuestionSummaryVO vo : records) {
+            vo.setTypeName(QuestionType.getNameByCode(vo.getType()));
+            vo.setDifficultyName(QuestionDifficulty.getNameByCode(vo.getDifficulty()));
+            vo.setCategoryName(categoryNames.get(vo.getCategoryId()));
+            vo.setSubmitCount(submitCounter.merge(vo.getId(), vo.getSubmitCount()));
+            vo.setFavoriteCount(favoriteCounter.merge(vo.getId(), vo.getFavoriteCount()));
+        }
+    }
+
+    @Override
+    public void fillHighlight(List<QuestionSummaryVO> records, String q) {
+        if (!StringUtils.hasText(q)) {
+            return;
+        }
+        for (QuestionSummaryVO vo : records) {
+            vo.setHighlight(SearchUtils.highlight(vo.getTitle(), null, q));
         }
-        
-        return vo;
     }
 
     @Override
-    public Page<QuestionVO> getMyQuestions(Integer userId, QuestionPageRequest request) {
+    public Page<QuestionSummaryVO> toSummaryPage(Page<Question> questionPage) {
+        Page<QuestionSummaryVO> voPage = new Page<>();
+        BeanUtils.copyProperties(questionPage, voPage, "records");
+        voPage.setRecords(convertToSummaryVOs(questionPage.getRecords()));
+        return voPage;
+    }
+
+    @Override
+    public LambdaQueryWrapper<Question> summaryWrapper() {
+        return new LambdaQueryWrapper<Question>()
+                .select(Question::getId, Question::getUuid, Question::getTitle, Question::getSlug,
+                        Question::getType, Question::getDifficulty, Question::getSubmitCount,
+                        Question::getFavoriteCount, Question::getIsOfficial, Question::getIsEnabled,
+                        Question::getCategoryId, Question::getCreatedAt);
+    }
+
+    @Override
+    public Page<QuestionSummaryVO> getMyQuestions(Integer userId, QuestionPageRequest request) {
         Page<Question> page = new Page<>(request.getPage(), request.getSize());
         
-        LambdaQueryWrapper<Question> wrapper = new LambdaQueryWrapper<>();
+        LambdaQueryWrapper<Question> wrapper = summaryWrapper();
         
         // 只查询当前用户创建的题目
         wrapper.eq(Question::getCreatedBy, userId);
@@ -179,6 +425,9 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
         if (request.getDifficulty() != null) {
             wrapper.eq(Question::getDifficulty, request.getDifficulty());
         }
+        if (StringUtils.hasText(request.getQ())) {
+            wrapper.apply("search_text ILIKE {0}", SearchUtils.likePattern(request.getQ()));
+        }
         
         // 排序
         wrapper.orderByDesc(Question::getCreatedAt);
@@ -186,39 +435,23 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
         Page<Question> questionPage = page(page, wrapper);
         
         // 转换为VO
-        Page<QuestionVO> voPage = new Page<>();
-        BeanUtils.copyProperties(questionPage, voPage, "records");
-        voPage.setRecords(questionPage.getRecords().stream()
-                .map(this::convertToVO)
-                .collect(java.util.stream.Collectors.toList()));
-        
+        Page<QuestionSummaryVO> voPage = toSummaryPage(questionPage);
+        fillHighlight(voPage.getRecords(), request.getQ());
         return voPage;
     }
     
     @Override
     public QuestionVO getRandomQuestion() {
-        // 只获取启用状态的题目
-        LambdaQueryWrapper<Question> wrapper = new LambdaQueryWrapper<Question>()
-                .eq(Question::getIsEnabled, true);
-        
-        long total = count(wrapper);
-        if (total == 0) {
+        // 从内存索引中抽取ID，只按主键查询一次
+        List<Integer> ids = questionIdIndex.sample(1);
+        if (ids.isEmpty()) {
             return null;
         }
-        
-        // 生成随机索引
-        Random random = new Random();
-        int randomIndex = random.nextInt((int) total);
-        
-        // 随机获取一条记录
-        Page<Question> page = new Page<>(randomIndex + 1, 1);
-        Page<Question> result = page(page, wrapper);
-        
-        if (result.getRecords().isEmpty()) {
+        Question question = getById(ids.get(0));
+        if (question == null) {
             return null;
         }
-        
-        return convertToVO(result.getRecords().get(0));
+        return convertToVO(question);
     }
     
     @Override
@@ -227,48 +460,115 @@ public class QuestionServiceImpl extends ServiceImpl<QuestionMapper, Question>
             count = 5; // 默认获取5道题
         }
         
-        // 只获取启用状态的题目
-        LambdaQueryWrapper<Question> wrapper = new LambdaQueryWrapper<Question>()
-                .eq(Question::getIsEnabled, true);
-        
-        long total = count(wrapper);
-        if (total == 0) {
+        // 从内存索引中随机抽取不重复的ID
+        List<Integer> randomIds = questionIdIndex.sample(count);
+        if (randomIds.isEmpty()) {
             return new ArrayList<>();
         }
         
-        // 如果请求数量大于总数，则返回所有题目
-        if (count >= total) {
-            List<Question> allQuestions = list(wrapper);
-            return allQuestions.stream()
-                    .map(this::convertToVO)
-                    .collect(Collectors.toList());
+        // 根据随机选择的ID获取题目，保持抽取顺序
+        return convertToVOs(listInOrder(randomIds));
+    }
+
+    @Override
+    public List<QuestionVO> composeQuiz(ComposeQuizRequest request) {
+        int count = request.getCount();
+        
+        // 计算分类范围
+        Set<Integer> scope = null;
+        if (request.getCategoryId() != null) {
+            scope = Boolean.FALSE.equals(request.getIncludeSubcategories())
+                    ? Set.of(request.getCategoryId())
+                    : categoryService.getSelfAndDescendantIds(request.getCategoryId());
         }
+        Set<Integer> excluded = request.getExcludeIds() == null
+                ? new HashSet<>() : new HashSet<>(request.getExcludeIds());
+        List<ComposeQuizRequest.Quota> quotas = request.getQuotas() == null ? List.of() : request.getQuotas();
         
-        // 获取所有题目ID
-        List<Integer> allIds = list(wrapper).stream()
-                .map(Question::getId)
-                .collect(Collectors.toList());
+        List<Integer> pickedIds = pickQuizIds(count, scope, excluded, quotas);
+        if (pickedIds.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // 随机选择count个ID
-        List<Integer> randomIds = new ArrayList<>();
-        Random random = new Random();
-        while (randomIds.size() < count) {
-            int randomIndex = random.nextInt(allIds.size());
-            Integer id = allIds.get(randomIndex);
-            if (!randomIds.contains(id)) {
-                randomIds.add(id);
+        // 一次查询取回题目，保持抽取顺序
+        return convertToVOs(listInOrder(pickedIds));
+    }
+
+    /**
+     * 按配额从内存索引中抽取，每个配额一次内存抽样，不查库；配额题目不足或未指定配额时从分类范围内补齐
+     *
+     * @param excluded 需要排除的题目ID，抽中的题目会加入其中
+     */
+    List<Integer> pickQuizIds(int count, Set<Integer> scope, Set<Integer> excluded,
+                              List<ComposeQuizRequest.Quota> quotas) {
+        List<Integer> pickedIds = new ArrayList<>(count);
+        int[] allocation = allocateQuotas(count, quotas);
+        for (int i = 0; i < quotas.size(); i++) {
+            ComposeQuizRequest.Quota quota = quotas.get(i);
+            Collection<Integer> categories = scope;
+            if (quota.getCategoryId() != null) {
+                if (scope != null && !scope.contains(quota.getCategoryId())) {
+                    continue;
+                }
+                categories = Set.of(quota.getCategoryId());
             }
+            List<Integer> ids = questionIdIndex.sample(categories, quota.getDifficulty(), quota.getType(),
+                    allocation[i], excluded);
+            pickedIds.addAll(ids);
+            excluded.addAll(ids);
         }
         
-        // 根据随机选择的ID获取题目
-        List<Question> randomQuestions = listByIds(randomIds);
-        
-        return randomQuestions.stream()
-                .map(this::convertToVO)
-                .collect(Collectors.toList());
+        // 配额题目不足或未指定配额时，从分类范围内补齐
+        if (pickedIds.size() < count) {
+            pickedIds.addAll(questionIdIndex.sample(scope, null, null, count - pickedIds.size(), excluded));
+        }
+        return pickedIds;
     }
-}
-
-
 
+    /**
+     * 一次查询取回题目，按 ids 的顺序返回（IN 查询的结果顺序不确定），跳过已不存在的题目
+     */
+    private List<Question> listInOrder(List<Integer> ids) {
+        Map<Integer, Question> questionMap = listByIds(ids).stream()
+                .collect(Collectors.toMap(Question::getId, question -> question));
+        List<Question> questions = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Question question = questionMap.get(id);
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        return questions;
+    }
 
+    /**
+     * 按权重分配各配额题目数（最大余数法）
+     */
+    static int[] allocateQuotas(int count, List<ComposeQuizRequest.Quota> quotas) {
+        int[] result = new int[quotas.size()];
+        long totalWeight = quotas.stream().mapToLong(ComposeQuizRequest.Quota::getWeight).sum();
+        if (totalWeight <= 0) {
+            return result;
+        }
+        double[] remainders = new double[quotas.size()];
+        int assigned = 0;
+        for (int i = 0; i < quotas.size(); i++) {
+            double exact = (double) count * quotas.get(i).getWeight() / totalWeight;
+            result[i] = (int) exact;
+            remainders[i] = exact - result[i];
+            assigned += result[i];
+        }
+        while (assigned < count) {
+            int best = 0;
+            for (int i = 1; i < remainders.length; i++) {
+                if (remainders[i] > remainders[best]) {
+                    best = i;
+                }
+            }
+            result[best]++;
+            remainders[best] = -1;
+            assigned++;
+        }
+        return result;
+    }
+}
@@ -2,12 +2,19 @@ package org.zhj.devdeck.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
+import org.zhj.devdeck.cache.RoleDetailCache;
 import org.zhj.devdeck.model.Role;
 import org.zhj.devdeck.service.RoleService;
 import org.zhj.devdeck.mapper.RoleMapper;
 import org.springframework.stereotype.Service;
 import org.zhj.devdeck.vo.RoleVO;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * @author 86155
  * @description 针对表【role】的数据库操作Service实现
@@ -20,12 +27,18 @@ public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role>
     @Resource
     private RoleMapper roleMapper;
 
+    @Resource
+    private RoleDetailCache roleDetailCache;
+
     @Override
     public RoleVO getRoleDetail(Integer id) {
-        return roleMapper.getRoleDetail(id);
+        return getRoleDetails(List.of(id)).get(id);
     }
-}
-
-
-
 
+    @Override
+    public Map<Integer, RoleVO> getRoleDetails(Collection<Integer> ids) {
+        // 未命中的角色合并为一条查询
+        return roleDetailCache.getAll(ids, missing -> roleMapper.listRoleDetails(missing).stream()
+                .collect(Collectors.toMap(RoleVO::getId, Function.identity())));
+    }
+}
@@ -1,11 +1,16 @@
 package org.zhj.devdeck.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
 import org.zhj.devdeck.model.UserRoles;
+import org.zhj.devdeck.response.BulkUserRolesResult;
 import org.zhj.devdeck.service.UserRolesService;
 import org.zhj.devdeck.mapper.UserRolesMapper;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+
 /**
 * @author 86155
 * @description 针对表【user_roles】的数据库操作Service实现
@@ -15,6 +20,22 @@ import org.springframework.stereotype.Service;
 public class UserRolesServiceImpl extends ServiceImpl<UserRolesMapper, UserRoles>
     implements UserRolesService{
 
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public BulkUserRolesResult updateRoles(Collection<Integer> userIds, Collection<Integer> roleIds,
+                                           Collection<Integer> roleIdsToDelete, Integer operatorId) {
+        BulkUserRolesResult result = new BulkUserRolesResult();
+        if (CollectionUtils.isEmpty(userIds)) {
+            return result;
+        }
+        if (!CollectionUtils.isEmpty(roleIdsToDelete)) {
+            result.setRevoked(baseMapper.bulkRevoke(userIds, roleIdsToDelete, operatorId));
+        }
+        if (!CollectionUtils.isEmpty(roleIds)) {
+            result.setAssigned(baseMapper.bulkAssign(userIds, roleIds, operatorId));
+        }
+        return result;
+    }
 }
 
 
@@ -5,14 +5,21 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.zhj.devdeck.common.CursorPage;
 import org.zhj.devdeck.dto.UserPageDTO;
 import org.zhj.devdeck.model.User;
 import org.zhj.devdeck.mapper.UserMapper;
 import org.zhj.devdeck.service.UsersService;
+import org.zhj.devdeck.utils.CursorUtils;
+import org.zhj.devdeck.utils.SearchUtils;
+import org.zhj.devdeck.vo.RoleVO;
 import org.zhj.devdeck.vo.UserDetailVO;
 import org.zhj.devdeck.vo.UserVO;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
 * @author 86155
@@ -23,6 +30,9 @@ import java.util.List;
 public class UsersServiceImpl extends ServiceImpl<UserMapper, User>
     implements UsersService{
 
+    private static final int MAX_CURSOR_SIZE = 100;
+    private static final String CURSOR_SORT = "id";
+
     @Resource
     private UserMapper userMapper;
 
@@ -40,7 +50,51 @@ public class UsersServiceImpl extends ServiceImpl<UserMapper, User>
     @Override
     public IPage<UserVO> voPage(UserPageDTO dto) {
         Page<UserVO> page = new Page<>(dto.getPageNo(), dto.getPageSize());
-        return userMapper.voPage(page,dto);
+        IPage<UserVO> result = userMapper.voPage(page, likePattern(dto.getNickName()), likePattern(dto.getEmail()));
+        fillPrimaryRoles(result.getRecords());
+        return result;
+    }
+
+    @Override
+    public CursorPage<UserVO> voCursor(UserPageDTO dto) {
+        int size = dto.getPageSize() == null || dto.getPageSize() < 1 ? 10 : Math.min(dto.getPageSize(), MAX_CURSOR_SIZE);
+        CursorUtils.Cursor cursor = CursorUtils.decode(dto.getAfter(), CURSOR_SORT);
+        Integer afterId = cursor == null ? null : cursor.getId();
+
+        // 多取一条用于判断是否还有下一页
+        List<UserVO> records = userMapper.voCursor(
+                likePattern(dto.getNickName()), likePattern(dto.getEmail()), afterId, size + 1);
+        CursorPage<UserVO> result = new CursorPage<>();
+        result.setSize(size);
+        if (records.size() > size) {
+            records = records.subList(0, size);
+            result.setHasMore(true);
+            result.setNextCursor(CursorUtils.encode(CURSOR_SORT, records.get(size - 1).getId(), null));
+        }
+        fillPrimaryRoles(records);
+        result.setRecords(records);
+        return result;
+    }
+
+    /**
+     * 只按当前页的用户ID查询主角色，再按ID回填
+     */
+    private void fillPrimaryRoles(List<UserVO> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<Integer> userIds = users.stream().map(UserVO::getId).toList();
+        Map<Integer, RoleVO> roles = new HashMap<>();
+        for (UserVO row : userMapper.listPrimaryRoles(userIds)) {
+            roles.put(row.getId(), row.getRole());
+        }
+        for (UserVO user : users) {
+            user.setRole(roles.get(user.getId()));
+        }
+    }
+
+    private String likePattern(String keyword) {
+        return StringUtils.hasText(keyword) ? SearchUtils.likePattern(keyword) : null;
     }
 }
 
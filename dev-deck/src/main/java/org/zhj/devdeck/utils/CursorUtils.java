@@ -0,0 +1,80 @@
+package org.zhj.devdeck.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.util.StringUtils;
+import org.zhj.devdeck.exception.QuizException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 游标分页工具类
+ * <p>
+ * 游标格式为 Base64URL("排序字段:ID:排序值")，对客户端不透明
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = ":";
+
+    private CursorUtils() {}
+
+    /** 生成游标 */
+    public static String encode(String sortBy, Integer id, Object value) {
+        String raw = sortBy + SEPARATOR + id + SEPARATOR + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * @return 游标为空时返回null
+     * @throws QuizException 游标非法或与排序字段不匹配时抛出
+     */
+    public static Cursor decode(String token, String sortBy) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            if (parts.length != 3 || !parts[0].equals(sortBy)) {
+                throw new QuizException(400, "游标参数错误");
+            }
+            return new Cursor(Integer.valueOf(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new QuizException(400, "游标参数错误");
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final Integer id;
+        private final String value;
+
+        /**
+         * 按整数解析排序值
+         * @throws QuizException 排序值非法时抛出
+         */
+        public Integer intValue() {
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new QuizException(400, "游标参数错误");
+            }
+        }
+
+        /**
+         * 按长整数（如毫秒时间戳）解析排序值
+         * @throws QuizException 排序值非法时抛出
+         */
+        public Long longValue() {
+            try {
+                return Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new QuizException(400, "游标参数错误");
+            }
+        }
+    }
+}
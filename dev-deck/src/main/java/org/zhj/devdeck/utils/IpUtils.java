@@ -0,0 +1,22 @@
+package org.zhj.devdeck.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 客户端IP工具类
+ */
+public final class IpUtils {
+
+    private IpUtils() {}
+
+    /**
+     * 获取客户端IP
+     * <p>
+     * 不直接读取 X-Forwarded-For 等请求头，客户端可以任意伪造。
+     * 部署在反向代理之后时由 server.forward-headers-strategy=native（Tomcat RemoteIpValve）处理：
+     * 只信任 server.tomcat.remoteip.internal-proxies 中的代理，取 X-Forwarded-For 最右侧的不受信任地址写入 remoteAddr。
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
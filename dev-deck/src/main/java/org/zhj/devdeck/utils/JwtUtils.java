@@ -1,10 +1,12 @@
 package org.zhj.devdeck.utils;
 
-import com.alibaba.fastjson.JSONObject;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.zhj.devdeck.model.User;
 
@@ -26,40 +28,68 @@ public class JwtUtils {
     // token过期时间 - 24小时
     private static final long EXPIRATION_TIME = 24 * 60 * 60 * 1000;
 
-    private static SecretKey getSigningKey() {
-        byte[] keyBytes = HexFormat.of().parseHex(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
+    // 密钥与解析器只构建一次；JwtParser 不可变，可在线程间共享
+    private static final SecretKey SIGNING_KEY = Keys.hmacShaKeyFor(HexFormat.of().parseHex(jwtSecret));
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(SIGNING_KEY).build();
+
+    private static final String CLAIM_UUID = "uuid";
+    private static final String CLAIM_SESSION_VERSION = "sv";
 
-    /** 生成JWT Token */
+    /**
+     * 生成JWT Token
+     * <p>
+     * 只携带用户ID（subject）、uuid 与会话版本，用户资料在服务端按ID读取
+     */
     public static String generateToken(User user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + EXPIRATION_TIME);
 
         return Jwts.builder()
-                .subject(JSONObject.toJSONString(user))
+                .subject(String.valueOf(user.getId()))
+                .claim(CLAIM_UUID, user.getUuid())
+                .claim(CLAIM_SESSION_VERSION, sessionVersionOf(user))
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(SIGNING_KEY)
                 .compact();
     }
 
-    /** 从token中获取用户 */
-    public static String getUserFromToken(String token) {
-        Claims claims = Jwts.parser().verifyWith(getSigningKey()).build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+    /**
+     * 校验签名与有效期并解析出令牌主体，整个过程只验签一次
+     *
+     * @throws JwtException token 非法、签名错误或已过期
+     */
+    public static Principal parsePrincipal(String token) {
+        Claims claims = PARSER.parseSignedClaims(token).getPayload();
+        Integer sessionVersion = claims.get(CLAIM_SESSION_VERSION, Integer.class);
+        return new Principal(Integer.valueOf(claims.getSubject()),
+                claims.get(CLAIM_UUID, String.class),
+                sessionVersion == null ? 0 : sessionVersion);
+    }
+
+    public static int sessionVersionOf(User user) {
+        return user.getSessionVersion() == null ? 0 : user.getSessionVersion();
     }
 
     /** 验证token是否有效 */
     public static boolean validateToken(String token) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token);
+            PARSER.parseSignedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Token验证失败: {}", e.getMessage());
             return false;
         }
     }
+
+    /**
+     * 令牌主体
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Principal {
+        private final Integer userId;
+        private final String uuid;
+        private final int sessionVersion;
+    }
 }
@@ -0,0 +1,66 @@
+package org.zhj.devdeck.utils;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 题目搜索工具类
+ */
+public class SearchUtils {
+
+    // 摘要中命中词前后保留的字符数
+    private static final int SNIPPET_RADIUS = 40;
+    private static final String HIGHLIGHT_START = "<em>";
+    private static final String HIGHLIGHT_END = "</em>";
+
+    private SearchUtils() {}
+
+    /**
+     * 构建 ILIKE 匹配模式，转义通配符
+     */
+    public static String likePattern(String q) {
+        String escaped = q.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * 生成高亮摘要：优先标题命中，其次描述命中；未命中返回null
+     * 摘要内容已做HTML转义，仅命中词包裹 &lt;em&gt; 标签
+     */
+    public static String highlight(String title, String content, String q) {
+        if (!StringUtils.hasText(q)) {
+            return null;
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(q.trim()),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        if (title != null) {
+            Matcher matcher = pattern.matcher(title);
+            if (matcher.find()) {
+                return wrap(title, matcher.start(), matcher.end(), 0, title.length());
+            }
+        }
+        if (content != null) {
+            Matcher matcher = pattern.matcher(content);
+            if (matcher.find()) {
+                int from = Math.max(0, matcher.start() - SNIPPET_RADIUS);
+                int to = Math.min(content.length(), matcher.end() + SNIPPET_RADIUS);
+                return (from > 0 ? "..." : "")
+                        + wrap(content, matcher.start(), matcher.end(), from, to)
+                        + (to < content.length() ? "..." : "");
+            }
+        }
+        return null;
+    }
+
+    private static String wrap(String text, int start, int end, int from, int to) {
+        return HtmlUtils.htmlEscape(text.substring(from, start))
+                + HIGHLIGHT_START + HtmlUtils.htmlEscape(text.substring(start, end)) + HIGHLIGHT_END
+                + HtmlUtils.htmlEscape(text.substring(end, to));
+    }
+}
@@ -6,6 +6,10 @@ import java.util.Optional;
 
 /**
  * 用户请求上下文（线程安全）
+ * <p>
+ * 由 TokenFilter 在请求线程上设置并在 finally 中清除。虚拟线程模式下每个请求独占一个虚拟线程，
+ * ThreadLocal 同样按线程隔离且随请求结束清除，不会串号；但它不会传递到其他线程，
+ * 异步任务需要用户信息时应显式传入用户ID。
  *
  * @Author 86155
  * @Date 2025/5/24
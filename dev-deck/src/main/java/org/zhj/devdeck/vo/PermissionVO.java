@@ -1,5 +1,6 @@
 package org.zhj.devdeck.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.util.Date;
@@ -21,4 +22,12 @@ public class PermissionVO {
     private String updatedBy;
     private Date createdAt;
     private Date updatedAt;
+
+    /**
+     * 创建人/修改人ID，用于解析昵称，不输出
+     */
+    @JsonIgnore
+    private Integer createdById;
+    @JsonIgnore
+    private Integer updatedById;
 }
@@ -0,0 +1,32 @@
+package org.zhj.devdeck.vo;
+
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 题目列表视图对象（不含描述、答案等大字段）
+ */
+@Data
+public class QuestionSummaryVO {
+    private Integer id;
+    private String uuid;
+    private String title;
+    private String slug;
+    private Integer type;
+    private String typeName;
+    private Integer difficulty;
+    private String difficultyName;
+    private Integer submitCount;
+    private Integer favoriteCount;
+    private Boolean isOfficial;
+    private Boolean isEnabled;
+    private Integer categoryId;
+    private String categoryName;
+
+    // 收藏时间，仅收藏列表返回
+    private Date favoritedAt;
+
+    // 搜索命中摘要（命中词以<em>标记），仅搜索时返回
+    private String highlight;
+}
@@ -21,6 +21,7 @@ public class QuestionVO {
     private Integer difficulty;
     private String difficultyName;
     private Integer submitCount;
+    private Integer favoriteCount;
     private String hint;
     private String source;
     private Boolean isOfficial;
@@ -1,5 +1,6 @@
 package org.zhj.devdeck.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.util.Date;
@@ -23,4 +24,12 @@ public class RoleVO {
     private Date updatedAt;
     private List<PermissionVO> permissions;
 
+    /**
+     * 创建人/修改人ID，用于解析昵称，不输出
+     */
+    @JsonIgnore
+    private Integer createdById;
+    @JsonIgnore
+    private Integer updatedById;
+
 }
@@ -1,5 +1,6 @@
 package org.zhj.devdeck.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 /**
@@ -11,6 +12,11 @@ import lombok.Data;
 @Data
 public class UserVO {
 
+    /**
+     * 用户ID，用于游标与回填角色，不输出
+     */
+    @JsonIgnore
+    private Integer id;
     private String uuid;
     private String email;
     private String nickName;
@@ -0,0 +1,85 @@
+package org.zhj.devdeck.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.zhj.devdeck.model.User;
+import org.zhj.devdeck.utils.JwtUtils;
+
+import javax.crypto.SecretKey;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenFilter 每次请求的 JWT 解析开销对比
+ * <p>
+ * legacy 复现旧流程：整个 User 序列化进 subject，每次重新构建密钥与解析器、验签两次后反序列化；
+ * current 为 {@link JwtUtils#parsePrincipal(String)}：token 只含用户ID、uuid 与会话版本，共享解析器只验签一次。
+ * 运行：在 IDE 中执行 main 方法，或 mvn test-compile 后以测试 classpath 启动本类。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private String legacyToken;
+    private String token;
+
+    @Setup
+    public void setup() {
+        User user = new User();
+        user.setId(1);
+        user.setUuid("3f1c8a2e-7b6d-4e5f-9a0b-1c2d3e4f5a6b");
+        user.setNickname("benchmark");
+        user.setAvatarUrl("https://cdn.example.com/avatar/3f1c8a2e-7b6d-4e5f-9a0b-1c2d3e4f5a6b.png");
+        user.setPassword("e10adc3949ba59abbe56e057f20f883e");
+        legacyToken = Jwts.builder()
+                .subject(JSONObject.toJSONString(user))
+                .signWith(legacyKey())
+                .compact();
+        token = JwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public User legacy() {
+        Jwts.parser().verifyWith(legacyKey()).build().parseSignedClaims(legacyToken);
+        String subject = Jwts.parser().verifyWith(legacyKey()).build()
+                .parseSignedClaims(legacyToken)
+                .getPayload()
+                .getSubject();
+        return JSONObject.parseObject(subject, User.class);
+    }
+
+    @Benchmark
+    public JwtUtils.Principal current() {
+        return JwtUtils.parsePrincipal(token);
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(HexFormat.of().parseHex(SECRET));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParseBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
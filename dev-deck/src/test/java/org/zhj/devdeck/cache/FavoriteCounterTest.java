@@ -0,0 +1,80 @@
+package org.zhj.devdeck.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.zhj.devdeck.mapper.QuestionMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 收藏数写后合并
+ */
+public class FavoriteCounterTest {
+
+    private QuestionMapper questionMapper;
+    private QuestionDetailCache questionDetailCache;
+    private FavoriteCounter favoriteCounter;
+
+    @BeforeEach
+    public void setUp() {
+        questionMapper = mock(QuestionMapper.class);
+        questionDetailCache = mock(QuestionDetailCache.class);
+        favoriteCounter = new FavoriteCounter(questionMapper, questionDetailCache);
+    }
+
+    @Test
+    public void testAddAndRemoveNetOut() {
+        favoriteCounter.add(1, 1);
+        favoriteCounter.add(1, 1);
+        favoriteCounter.add(1, -1);
+
+        assertEquals(1, favoriteCounter.pending(1));
+        assertEquals(6, favoriteCounter.merge(1, 5));
+    }
+
+    @Test
+    public void testUnfavoriteCanBeNegative() {
+        favoriteCounter.add(1, -1);
+
+        assertEquals(4, favoriteCounter.merge(1, 5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushWritesNetDeltas() {
+        favoriteCounter.add(1, 1);
+        favoriteCounter.add(2, -1);
+        // 收藏后又取消，净增量为 0，不写库
+        favoriteCounter.add(3, 1);
+        favoriteCounter.add(3, -1);
+
+        favoriteCounter.flush();
+
+        ArgumentCaptor<List<Map<String, Object>>> batch = ArgumentCaptor.forClass(List.class);
+        verify(questionMapper).incrementCounts(eq("favorite_count"), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertTrue(batch.getValue().contains(Map.of("id", 1, "delta", 1L)));
+        assertTrue(batch.getValue().contains(Map.of("id", 2, "delta", -1L)));
+        assertEquals(0, favoriteCounter.pending(1));
+        assertEquals(0, favoriteCounter.pending(2));
+    }
+
+    @Test
+    public void testFailedFlushKeepsDeltas() {
+        favoriteCounter.add(1, 2);
+        doThrow(new RuntimeException("db down")).when(questionMapper).incrementCounts(anyString(), anyList());
+
+        favoriteCounter.flush();
+
+        assertEquals(2, favoriteCounter.pending(1));
+        verifyNoInteractions(questionDetailCache);
+    }
+}
@@ -0,0 +1,257 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.mapper.QuestionFavoriteMapper;
+import org.zhj.devdeck.model.QuestionFavorite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 收藏集合：按需加载、增量维护、加载与写入并发时不丢变更
+ */
+public class FavoriteSetTest {
+
+    private static final Integer USER = 7;
+    private static final String KEY = RedisConstant.FAVORITE_PREFIX + USER;
+
+    private FakeRedisTemplate redis;
+    private QuestionFavoriteMapper questionFavoriteMapper;
+    private FavoriteSet favoriteSet;
+    // 数据库中的收藏
+    private Set<Integer> favorites;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), QuestionFavorite.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        redis = new FakeRedisTemplate();
+        questionFavoriteMapper = mock(QuestionFavoriteMapper.class);
+        favorites = new HashSet<>(Set.of(1, 3));
+        doAnswer(invocation -> rows(favorites)).when(questionFavoriteMapper).selectList(any());
+        favoriteSet = new FavoriteSet(redis, questionFavoriteMapper);
+    }
+
+    @Test
+    public void testLoadOnceThenServeFromRedis() {
+        assertEquals(List.of(true, false, true), favoriteSet.contains(USER, List.of(1, 2, 3)));
+        assertEquals(Set.of("0", "1", "3"), redis.sets.get(KEY));
+        // 加载完成后删除令牌
+        assertFalse(redis.values.containsKey(KEY + ":loading"));
+
+        assertEquals(List.of(false, true), favoriteSet.contains(USER, List.of(2, 3)));
+        verify(questionFavoriteMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    public void testEmptyFavoritesStillMarkedLoaded() {
+        favorites.clear();
+
+        assertEquals(List.of(false), favoriteSet.contains(USER, List.of(1)));
+        assertEquals(List.of(false), favoriteSet.contains(USER, List.of(1)));
+        assertEquals(Set.of("0"), redis.sets.get(KEY));
+        verify(questionFavoriteMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    public void testAddAndRemoveWhenLoaded() {
+        favoriteSet.contains(USER, List.of(1));
+
+        favoriteSet.add(USER, 2);
+        favoriteSet.remove(USER, 1);
+
+        assertEquals(List.of(false, true, true), favoriteSet.contains(USER, List.of(1, 2, 3)));
+        verify(questionFavoriteMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    public void testAddSkippedWhenNotLoaded() {
+        favoriteSet.add(USER, 2);
+
+        // 未加载时不创建残缺的集合，下次读取整体加载
+        assertFalse(redis.sets.containsKey(KEY));
+        favorites.add(2);
+        assertEquals(List.of(true), favoriteSet.contains(USER, List.of(2)));
+    }
+
+    @Test
+    public void testChangeDuringLoadDiscardsLoadResult() {
+        // 查询数据库之后、写入集合之前有一次收藏提交
+        doAnswer(invocation -> {
+            List<QuestionFavorite> snapshot = rows(favorites);
+            favorites.add(2);
+            favoriteSet.add(USER, 2);
+            return snapshot;
+        }).when(questionFavoriteMapper).selectList(any());
+
+        favoriteSet.contains(USER, List.of(2));
+        // 本次加载的快照已过时，不写入集合
+        assertFalse(redis.sets.containsKey(KEY));
+
+        doAnswer(invocation -> rows(favorites)).when(questionFavoriteMapper).selectList(any());
+        assertEquals(List.of(true), favoriteSet.contains(USER, List.of(2)));
+        assertEquals(Set.of("0", "1", "2", "3"), redis.sets.get(KEY));
+    }
+
+    @Test
+    public void testFallBackToDatabaseWhenRedisDown() {
+        redis.down = true;
+
+        assertEquals(List.of(true, false), favoriteSet.contains(USER, List.of(1, 2)));
+        // 写入失败不影响收藏本身
+        assertDoesNotThrow(() -> favoriteSet.add(USER, 2));
+    }
+
+    @Test
+    public void testFailedUpdateEvictsSet() {
+        favoriteSet.contains(USER, List.of(1));
+        redis.failScripts = true;
+
+        favoriteSet.add(USER, 2);
+
+        assertFalse(redis.sets.containsKey(KEY));
+    }
+
+    private static List<QuestionFavorite> rows(Collection<Integer> questionIds) {
+        List<QuestionFavorite> rows = new ArrayList<>();
+        for (Integer questionId : questionIds) {
+            QuestionFavorite favorite = new QuestionFavorite();
+            favorite.setUserId(USER);
+            favorite.setQuestionId(questionId);
+            rows.add(favorite);
+        }
+        return rows;
+    }
+
+    /**
+     * 内存版 Redis，按 Lua 脚本的语义执行 FavoriteSet 用到的两个脚本
+     */
+    private static class FakeRedisTemplate extends StringRedisTemplate {
+        private final Map<String, Set<String>> sets = new HashMap<>();
+        private final Map<String, String> values = new HashMap<>();
+        private boolean down;
+        private boolean failScripts;
+
+        @SuppressWarnings("unchecked")
+        private final SetOperations<String, String> setOperations = mock(SetOperations.class);
+        @SuppressWarnings("unchecked")
+        private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+        FakeRedisTemplate() {
+            when(setOperations.isMember(anyString(), any(Object[].class))).thenAnswer(invocation -> available(() -> {
+                Object[] arguments = invocation.getArguments();
+                Set<String> members = sets.getOrDefault((String) arguments[0], Set.of());
+                Map<Object, Boolean> result = new HashMap<>();
+                for (Object member : flatten(Arrays.copyOfRange(arguments, 1, arguments.length))) {
+                    result.put(member, members.contains(member));
+                }
+                return result;
+            }));
+            doAnswer(invocation -> available(() -> values.put(invocation.getArgument(0), invocation.getArgument(1))))
+                    .when(valueOperations).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+        }
+
+        @Override
+        public SetOperations<String, String> opsForSet() {
+            return setOperations;
+        }
+
+        @Override
+        public ValueOperations<String, String> opsForValue() {
+            return valueOperations;
+        }
+
+        @Override
+        public Long delete(Collection<String> keys) {
+            return available(() -> {
+                long deleted = 0;
+                for (String key : keys) {
+                    deleted += (sets.remove(key) != null ? 1 : 0) + (values.remove(key) != null ? 1 : 0);
+                }
+                return deleted;
+            });
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            if (failScripts) {
+                throw new RedisConnectionFailureException("script failed");
+            }
+            return (T) available(() -> script.getScriptAsString().contains("SISMEMBER")
+                    ? updateIfLoaded(keys, args) : loadIfUnchanged(keys, args));
+        }
+
+        private Long updateIfLoaded(List<String> keys, Object[] args) {
+            Set<String> members = sets.get(keys.get(0));
+            if (members != null && members.contains((String) args[0])) {
+                boolean changed = "SADD".equals(args[1]) ? members.add((String) args[2]) : members.remove((String) args[2]);
+                return changed ? 1L : 0L;
+            }
+            values.remove(keys.get(1));
+            return 0L;
+        }
+
+        private Long loadIfUnchanged(List<String> keys, Object[] args) {
+            if (!Objects.equals(values.get(keys.get(1)), args[0])) {
+                return 0L;
+            }
+            values.remove(keys.get(1));
+            Set<String> members = new HashSet<>();
+            for (int i = 2; i < args.length; i++) {
+                members.add((String) args[i]);
+            }
+            sets.put(keys.get(0), members);
+            return 1L;
+        }
+
+        private <R> R available(Supplier<R> operation) {
+            if (down) {
+                throw new RedisConnectionFailureException("redis unavailable");
+            }
+            return operation.get();
+        }
+
+        // Mockito 可能把可变参数展开或保留为数组
+        private static List<Object> flatten(Object[] arguments) {
+            List<Object> flat = new ArrayList<>();
+            for (Object argument : arguments) {
+                if (argument instanceof Object[] array) {
+                    flat.addAll(Arrays.asList(array));
+                } else {
+                    flat.add(argument);
+                }
+            }
+            return flat;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.zhj.devdeck.constant.RedisConstant;
+import org.zhj.devdeck.mapper.PermissionMapper;
+import org.zhj.devdeck.mapper.RolePermissionsMapper;
+import org.zhj.devdeck.mapper.UserRolesMapper;
+import org.zhj.devdeck.model.Permission;
+import org.zhj.devdeck.model.RolePermissions;
+import org.zhj.devdeck.model.UserRoles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 内存权限模型：位图编译、单角色重载、授权失效与系统管理员
+ */
+public class PermissionEngineTest {
+
+    private static final int ADMIN_ROLE = 1;
+    private static final int EDITOR_ROLE = 2;
+    private static final int VIEWER_ROLE = 3;
+
+    private PermissionMapper permissionMapper;
+    private RolePermissionsMapper rolePermissionsMapper;
+    private UserRolesMapper userRolesMapper;
+    private StringRedisTemplate redisTemplate;
+    private PermissionEngine permissionEngine;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(new MybatisConfiguration(), "");
+        TableInfoHelper.initTableInfo(assistant, Permission.class);
+        TableInfoHelper.initTableInfo(assistant, RolePermissions.class);
+        TableInfoHelper.initTableInfo(assistant, UserRoles.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        permissionMapper = mock(PermissionMapper.class);
+        rolePermissionsMapper = mock(RolePermissionsMapper.class);
+        userRolesMapper = mock(UserRolesMapper.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        permissionEngine = new PermissionEngine(permissionMapper, rolePermissionsMapper, userRolesMapper,
+                redisTemplate, mock(RedisMessageListenerContainer.class));
+
+        // 权限 10、11 编码相同，共用一位
+        when(permissionMapper.selectList(any())).thenReturn(List.of(
+                permission(10, "question:update"),
+                permission(11, "question:update"),
+                permission(12, "question:delete"),
+                permission(13, "role:view")));
+        when(rolePermissionsMapper.selectList(any())).thenReturn(List.of(
+                binding(EDITOR_ROLE, 10),
+                binding(EDITOR_ROLE, 12),
+                binding(VIEWER_ROLE, 13)));
+    }
+
+    @Test
+    public void testRolePermissionsCompiled() {
+        rolesOfUser(EDITOR_ROLE);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:update"));
+        assertTrue(permissionEngine.hasPermission(100, "question:delete"));
+        assertFalse(permissionEngine.hasPermission(100, "role:view"));
+        assertFalse(permissionEngine.hasPermission(100, "unknown:code"));
+    }
+
+    @Test
+    public void testPermissionsSharingCodeShareBit() {
+        when(rolePermissionsMapper.selectList(any())).thenReturn(List.of(binding(VIEWER_ROLE, 11)));
+        rolesOfUser(VIEWER_ROLE);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:update"));
+    }
+
+    @Test
+    public void testEffectivePermissionsAreUnionOfRoles() {
+        rolesOfUser(EDITOR_ROLE, VIEWER_ROLE);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:delete"));
+        assertTrue(permissionEngine.hasPermission(100, "role:view"));
+    }
+
+    @Test
+    public void testUserWithoutRolesHasNothing() {
+        rolesOfUser();
+
+        assertFalse(permissionEngine.hasPermission(100, "role:view"));
+    }
+
+    @Test
+    public void testSuperuserHasEveryPermission() {
+        rolesOfUser(ADMIN_ROLE);
+
+        assertTrue(permissionEngine.hasPermission(1, "role:view"));
+        assertTrue(permissionEngine.hasPermission(1, "not:defined"));
+        // 系统管理员不需要编译模型
+        verifyNoInteractions(permissionMapper);
+    }
+
+    @Test
+    public void testGrantCachedBetweenChecks() {
+        rolesOfUser(EDITOR_ROLE);
+
+        for (int i = 0; i < 5; i++) {
+            permissionEngine.hasPermission(100, "question:update");
+        }
+        verify(userRolesMapper, times(1)).selectList(any());
+        verify(permissionMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    public void testRoleChangedReloadsOnlyThatRole() {
+        rolesOfUser(VIEWER_ROLE);
+        assertFalse(permissionEngine.hasPermission(100, "question:delete"));
+
+        // 单角色重载只查询该角色的绑定
+        when(rolePermissionsMapper.selectList(any())).thenReturn(List.of(binding(VIEWER_ROLE, 12)));
+        permissionEngine.roleChanged(VIEWER_ROLE);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:delete"));
+        assertFalse(permissionEngine.hasPermission(100, "role:view"));
+        verify(permissionMapper, times(1)).selectList(any());
+        // 已缓存的授权按模型版本重算，无需重新查询用户角色
+        verify(userRolesMapper, times(1)).selectList(any());
+        verify(redisTemplate).convertAndSend(RedisConstant.PERMISSION_INVALIDATE_CHANNEL, "role:" + VIEWER_ROLE);
+    }
+
+    @Test
+    public void testRoleChangedRemovesEmptyRole() {
+        rolesOfUser(VIEWER_ROLE);
+        assertTrue(permissionEngine.hasPermission(100, "role:view"));
+
+        when(rolePermissionsMapper.selectList(any())).thenReturn(List.of());
+        permissionEngine.roleChanged(VIEWER_ROLE);
+
+        assertFalse(permissionEngine.hasPermission(100, "role:view"));
+    }
+
+    @Test
+    public void testRoleChangedWithNewPermissionFallsBackToFullRebuild() {
+        rolesOfUser(VIEWER_ROLE);
+        assertFalse(permissionEngine.hasPermission(100, "question:create"));
+
+        // 新建的权限 14 不在模型中，退化为全量重建
+        when(permissionMapper.selectList(any())).thenReturn(List.of(
+                permission(13, "role:view"),
+                permission(14, "question:create")));
+        when(rolePermissionsMapper.selectList(any())).thenReturn(List.of(
+                binding(VIEWER_ROLE, 13),
+                binding(VIEWER_ROLE, 14)));
+        permissionEngine.roleChanged(VIEWER_ROLE);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:create"));
+        assertTrue(permissionEngine.hasPermission(100, "role:view"));
+        verify(permissionMapper, times(2)).selectList(any());
+    }
+
+    @Test
+    public void testUserChangedInvalidatesGrant() {
+        rolesOfUser(VIEWER_ROLE);
+        assertFalse(permissionEngine.hasPermission(100, "question:update"));
+
+        rolesOfUser(EDITOR_ROLE);
+        // 失效前仍使用缓存的角色列表
+        assertFalse(permissionEngine.hasPermission(100, "question:update"));
+        permissionEngine.userChanged(100);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:update"));
+        verify(redisTemplate).convertAndSend(RedisConstant.PERMISSION_INVALIDATE_CHANNEL, "user:100");
+    }
+
+    @Test
+    public void testUsersChangedMessageFromOtherNode() {
+        rolesOfUser(VIEWER_ROLE);
+        permissionEngine.hasPermission(100, "question:update");
+        permissionEngine.hasPermission(101, "question:update");
+
+        rolesOfUser(EDITOR_ROLE);
+        permissionEngine.onMessage(message("user:100,101"), null);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:update"));
+        assertTrue(permissionEngine.hasPermission(101, "question:update"));
+    }
+
+    @Test
+    public void testAllUsersMessageInvalidatesEveryGrant() {
+        rolesOfUser(VIEWER_ROLE);
+        permissionEngine.hasPermission(100, "question:update");
+
+        rolesOfUser(EDITOR_ROLE);
+        permissionEngine.onMessage(message("user:*"), null);
+
+        assertTrue(permissionEngine.hasPermission(100, "question:update"));
+    }
+
+    @Test
+    public void testMalformedMessageIgnored() {
+        rolesOfUser(VIEWER_ROLE);
+        permissionEngine.hasPermission(100, "role:view");
+
+        permissionEngine.onMessage(message("user:abc"), null);
+        permissionEngine.onMessage(message("unknown"), null);
+
+        assertTrue(permissionEngine.hasPermission(100, "role:view"));
+    }
+
+    private void rolesOfUser(Integer... roleIds) {
+        when(userRolesMapper.selectList(any())).thenReturn(Arrays.stream(roleIds).map(roleId -> {
+            UserRoles userRoles = new UserRoles();
+            userRoles.setRoleId(roleId);
+            return userRoles;
+        }).toList());
+    }
+
+    private static Permission permission(Integer id, String code) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        permission.setCode(code);
+        return permission;
+    }
+
+    private static RolePermissions binding(Integer roleId, Integer permissionId) {
+        RolePermissions binding = new RolePermissions();
+        binding.setRoleId(roleId);
+        binding.setPermissionId(permissionId);
+        return binding;
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(RedisConstant.PERMISSION_INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
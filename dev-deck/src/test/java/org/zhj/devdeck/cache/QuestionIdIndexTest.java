@@ -0,0 +1,176 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zhj.devdeck.mapper.QuestionMapper;
+import org.zhj.devdeck.model.Question;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 题目ID索引抽样
+ */
+public class QuestionIdIndexTest {
+
+    private static final int REPEAT = 200;
+
+    private QuestionMapper questionMapper;
+    private QuestionIdIndex questionIdIndex;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        // 构造 Lambda 条件需要实体元数据
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Question.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        // 30道题：分类 1/2/3，难度 1/2，题型 1
+        List<Question> questions = new ArrayList<>();
+        for (int id = 1; id <= 30; id++) {
+            questions.add(question(id, id % 3 + 1, id % 2 + 1));
+        }
+        questionMapper = mock(QuestionMapper.class);
+        when(questionMapper.selectList(any())).thenReturn(questions);
+        questionIdIndex = new QuestionIdIndex(questionMapper);
+    }
+
+    @Test
+    public void testSampleDistinctWithinRange() {
+        for (int i = 0; i < REPEAT; i++) {
+            List<Integer> ids = questionIdIndex.sample(10);
+            assertEquals(10, ids.size());
+            assertEquals(10, new HashSet<>(ids).size());
+            ids.forEach(id -> assertTrue(id >= 1 && id <= 30));
+        }
+        // 只在首次抽样时加载
+        verify(questionMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    public void testSampleMoreThanAvailableReturnsAll() {
+        List<Integer> ids = questionIdIndex.sample(100);
+
+        assertEquals(30, ids.size());
+        assertEquals(30, new HashSet<>(ids).size());
+    }
+
+    @Test
+    public void testSampleZero() {
+        assertTrue(questionIdIndex.sample(0).isEmpty());
+    }
+
+    @Test
+    public void testSampleFiltersByCategoryAndDifficulty() {
+        for (int i = 0; i < REPEAT; i++) {
+            List<Integer> ids = questionIdIndex.sample(Set.of(1, 2), 2, null, 100, Set.of());
+            // 分类1/2 且难度2：id % 3 != 2 且 id 为奇数
+            assertEquals(10, ids.size());
+            assertEquals(10, new HashSet<>(ids).size());
+            ids.forEach(id -> assertTrue(id % 3 != 2 && id % 2 == 1));
+        }
+    }
+
+    @Test
+    public void testSampleSkipsExcludedIds() {
+        Set<Integer> excluded = new HashSet<>();
+        for (int id = 1; id <= 25; id++) {
+            excluded.add(id);
+        }
+        for (int i = 0; i < REPEAT; i++) {
+            List<Integer> ids = questionIdIndex.sample(null, null, null, 3, excluded);
+            assertEquals(3, ids.size());
+            assertEquals(3, new HashSet<>(ids).size());
+            ids.forEach(id -> assertTrue(id > 25));
+        }
+        assertEquals(5, questionIdIndex.sample(null, null, null, 10, excluded).size());
+    }
+
+    @Test
+    public void testSampleUnknownCategoryIsEmpty() {
+        assertTrue(questionIdIndex.sample(Set.of(99), null, null, 10, Set.of()).isEmpty());
+        assertTrue(questionIdIndex.sample(null, null, 9, 10, Set.of()).isEmpty());
+    }
+
+    @Test
+    public void testRemoveAndPut() {
+        questionIdIndex.sample(1);
+        questionIdIndex.remove(1);
+        assertFalse(questionIdIndex.sample(100).contains(1));
+
+        questionIdIndex.put(question(1, 1, 1));
+        assertTrue(questionIdIndex.sample(Set.of(1), 1, 1, 100, Set.of()).contains(1));
+    }
+
+    @Test
+    public void testMoveBetweenBucketsKeepsOthers() {
+        questionIdIndex.sample(1);
+        // 反复移动与删除，交换删除后其余ID仍可抽到
+        for (int id = 1; id <= 30; id += 2) {
+            questionIdIndex.put(question(id, 9, 1));
+        }
+        questionIdIndex.remove(2);
+        questionIdIndex.remove(4);
+
+        List<Integer> moved = questionIdIndex.sample(Set.of(9), null, null, 100, Set.of());
+        assertEquals(15, moved.size());
+        moved.forEach(id -> assertEquals(1, id % 2));
+
+        List<Integer> all = questionIdIndex.sample(100);
+        assertEquals(28, all.size());
+        assertEquals(28, new HashSet<>(all).size());
+        assertFalse(all.contains(2) || all.contains(4));
+    }
+
+    @Test
+    public void testWritesDuringRebuildAreReplayed() {
+        questionIdIndex.sample(1);
+        List<Question> snapshot = List.of(question(1, 1, 1), question(2, 1, 1));
+        // 模拟重建查询期间另一线程的增量写入：新增31、删除2，查询结果未包含这些变更
+        doAnswer(invocation -> {
+            questionIdIndex.put(question(31, 1, 1));
+            questionIdIndex.remove(2);
+            return snapshot;
+        }).when(questionMapper).selectList(any());
+
+        questionIdIndex.rebuild();
+
+        List<Integer> ids = questionIdIndex.sample(100);
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(1, 31)));
+    }
+
+    @Test
+    public void testFailedRebuildKeepsCurrentIndex() {
+        questionIdIndex.sample(1);
+        doThrow(new RuntimeException("db down")).when(questionMapper).selectList(any());
+
+        assertThrows(RuntimeException.class, () -> questionIdIndex.rebuild());
+
+        questionIdIndex.remove(1);
+        List<Integer> ids = questionIdIndex.sample(100);
+        assertEquals(29, ids.size());
+        assertFalse(ids.contains(1));
+    }
+
+    private static Question question(int id, int categoryId, int difficulty) {
+        Question question = new Question();
+        question.setId(id);
+        question.setCategoryId(categoryId);
+        question.setDifficulty(difficulty);
+        question.setType(1);
+        question.setIsEnabled(true);
+        return question;
+    }
+}
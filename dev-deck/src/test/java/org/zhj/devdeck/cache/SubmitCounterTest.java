@@ -0,0 +1,139 @@
+package org.zhj.devdeck.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.zhj.devdeck.mapper.QuestionMapper;
+import org.zhj.devdeck.model.Question;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 提交次数写后合并
+ */
+public class SubmitCounterTest {
+
+    private QuestionMapper questionMapper;
+    private QuestionDetailCache questionDetailCache;
+    private SubmitCounter submitCounter;
+
+    @BeforeAll
+    public static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Question.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        questionMapper = mock(QuestionMapper.class);
+        questionDetailCache = mock(QuestionDetailCache.class);
+        when(questionMapper.selectCount(any())).thenReturn(1L);
+        submitCounter = new SubmitCounter(questionMapper, questionDetailCache);
+    }
+
+    @Test
+    public void testIncrementChecksExistenceOnce() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(submitCounter.increment(1));
+        }
+
+        assertEquals(5, submitCounter.pending(1));
+        verify(questionMapper, times(1)).selectCount(any());
+    }
+
+    @Test
+    public void testIncrementMissingQuestion() {
+        when(questionMapper.selectCount(any())).thenReturn(0L);
+
+        assertFalse(submitCounter.increment(1));
+        assertFalse(submitCounter.increment(null));
+        assertEquals(0, submitCounter.pending(1));
+    }
+
+    @Test
+    public void testMergeAddsPendingToPersisted() {
+        submitCounter.increment(1);
+        submitCounter.increment(1);
+
+        assertEquals(12, submitCounter.merge(1, 10));
+        assertEquals(2, submitCounter.merge(1, null));
+        assertEquals(10, submitCounter.merge(2, 10));
+        assertNull(submitCounter.merge(2, null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushWritesDeltasAndEvictsDetails() {
+        submitCounter.increment(1);
+        submitCounter.increment(1);
+        submitCounter.increment(2);
+
+        submitCounter.flush();
+
+        ArgumentCaptor<List<Map<String, Object>>> batch = ArgumentCaptor.forClass(List.class);
+        verify(questionMapper).incrementCounts(eq("submit_count"), batch.capture());
+        assertEquals(2, batch.getValue().size());
+        assertTrue(batch.getValue().contains(Map.of("id", 1, "delta", 2L)));
+        assertTrue(batch.getValue().contains(Map.of("id", 2, "delta", 1L)));
+        verify(questionDetailCache).evictAll(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1, 2))));
+        assertEquals(0, submitCounter.pending(1));
+
+        // 没有新增量时不写库
+        submitCounter.flush();
+        verify(questionMapper, times(1)).incrementCounts(anyString(), anyList());
+    }
+
+    @Test
+    public void testFailedFlushKeepsDeltas() {
+        submitCounter.increment(1);
+        submitCounter.increment(1);
+        doThrow(new RuntimeException("db down")).when(questionMapper).incrementCounts(anyString(), anyList());
+
+        submitCounter.flush();
+
+        // 增量还给计数器，等待下一轮重试，也不失效缓存
+        assertEquals(2, submitCounter.pending(1));
+        verifyNoInteractions(questionDetailCache);
+
+        doReturn(1).when(questionMapper).incrementCounts(anyString(), anyList());
+        submitCounter.increment(1);
+        submitCounter.flush();
+        assertEquals(0, submitCounter.pending(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushSplitsLargeBatches() {
+        for (int id = 1; id <= 1200; id++) {
+            submitCounter.increment(id);
+        }
+
+        submitCounter.flush();
+
+        ArgumentCaptor<List<Map<String, Object>>> batch = ArgumentCaptor.forClass(List.class);
+        verify(questionMapper, times(3)).incrementCounts(eq("submit_count"), batch.capture());
+        assertEquals(List.of(500, 500, 200), batch.getAllValues().stream().map(List::size).toList());
+    }
+
+    @Test
+    public void testDiscard() {
+        submitCounter.increment(1);
+
+        submitCounter.discard(1);
+
+        assertEquals(0, submitCounter.pending(1));
+        submitCounter.flush();
+        verify(questionMapper, never()).incrementCounts(anyString(), anyList());
+    }
+}
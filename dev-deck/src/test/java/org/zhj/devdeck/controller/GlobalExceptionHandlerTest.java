@@ -0,0 +1,35 @@
+package org.zhj.devdeck.controller;
+
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.zhj.devdeck.common.Result;
+import org.zhj.devdeck.exception.BulkheadRejectedException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 全局异常处理：被包装的舱壁拒绝
+ */
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    public void testWrappedBulkheadRejectionIsServiceBusy() {
+        // 事务开启时借连接被拒绝：CannotCreateTransactionException -> PersistenceException -> 舱壁拒绝
+        Exception ex = new CannotCreateTransactionException("Could not open JDBC Connection for transaction",
+                new PersistenceException(new BulkheadRejectedException("db")));
+
+        Result<String> result = handler.handleException(ex);
+
+        assertEquals(503, result.getCode());
+    }
+
+    @Test
+    public void testOtherExceptionIsInternalError() {
+        Result<String> result = handler.handleException(new IllegalStateException("boom", new RuntimeException()));
+
+        assertEquals(999, result.getCode());
+    }
+}
@@ -0,0 +1,204 @@
+package org.zhj.devdeck.mail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.zhj.devdeck.bulkhead.Bulkhead;
+import org.zhj.devdeck.response.MailQueueStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 邮件发送队列，对接本地假 SMTP 服务
+ */
+public class MailDispatcherTest {
+
+    private static final long AWAIT_MILLIS = 10_000;
+
+    private FakeSmtpServer server;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new FakeSmtpServer();
+        dispatcher = new MailDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "host", "127.0.0.1");
+        ReflectionTestUtils.setField(dispatcher, "port", server.getPort());
+        ReflectionTestUtils.setField(dispatcher, "auth", false);
+        ReflectionTestUtils.setField(dispatcher, "username", "noreply@example.com");
+        ReflectionTestUtils.setField(dispatcher, "password", "");
+        // 单个工作线程，保证发送顺序与连接复用可观察
+        ReflectionTestUtils.setField(dispatcher, "workerCount", 1);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(dispatcher, "smtpBulkhead", new Bulkhead("smtp", 1, 1000));
+        dispatcher.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        dispatcher.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void testEnqueueAndSend() {
+        dispatcher.enqueue("user@example.com", "Verification code", "123456");
+
+        await(() -> dispatcher.status().getSent() == 1);
+        assertEquals(1, server.messages.size());
+        String message = server.messages.get(0);
+        assertTrue(message.contains("MAIL FROM:<noreply@example.com>"));
+        assertTrue(message.contains("RCPT TO:<user@example.com>"));
+        assertTrue(message.contains("Subject: Verification code"));
+        assertTrue(message.contains("123456"));
+
+        MailQueueStatus status = dispatcher.status();
+        assertEquals(1, status.getEnqueued());
+        assertEquals(0, status.getRetried());
+        assertEquals(0, status.getFailed());
+    }
+
+    @Test
+    public void testReuseTransportAcrossSends() {
+        dispatcher.enqueue("a@example.com", "first", "1");
+        dispatcher.enqueue("b@example.com", "second", "2");
+        dispatcher.enqueue("c@example.com", "third", "3");
+
+        await(() -> dispatcher.status().getSent() == 3);
+        assertEquals(3, server.messages.size());
+        // 三封邮件走同一个 SMTP 连接
+        assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    public void testRetryAfterBrokenConnection() {
+        // 第一个连接在 MAIL FROM 后被服务端断开
+        server.dropMailCommands.set(1);
+        dispatcher.enqueue("user@example.com", "Verification code", "123456");
+
+        await(() -> dispatcher.status().getSent() == 1);
+        assertEquals(1, server.messages.size());
+        // 损坏的连接被丢弃，重试时重新建立
+        assertEquals(2, server.connections.get());
+
+        MailQueueStatus status = dispatcher.status();
+        assertEquals(1, status.getRetried());
+        assertEquals(0, status.getRetrying());
+        assertEquals(0, status.getFailed());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + AWAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("等待超时");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("等待被中断");
+            }
+        }
+    }
+
+    /**
+     * 最小 SMTP 服务：记录连接数与收到的邮件（含信封命令），可让指定次数的 MAIL 命令直接断开连接
+     */
+    private static class FakeSmtpServer {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger dropMailCommands = new AtomicInteger();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        FakeSmtpServer() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "fake-smtp");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread handler = new Thread(() -> handle(socket), "fake-smtp-session");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+                reply(out, "220 localhost fake smtp");
+                StringBuilder envelope = new StringBuilder();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("MAIL")) {
+                        if (dropMailCommands.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                            return;
+                        }
+                        envelope.setLength(0);
+                        envelope.append(line).append('\n');
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("RCPT")) {
+                        envelope.append(line).append('\n');
+                        reply(out, "250 OK");
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder message = new StringBuilder(envelope);
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            message.append(line).append('\n');
+                        }
+                        messages.add(message.toString());
+                        reply(out, "250 OK");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        // EHLO/HELO/NOOP/RSET
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // 客户端断开
+            }
+        }
+
+        private static void reply(Writer out, String line) throws IOException {
+            out.write(line + "\r\n");
+            out.flush();
+        }
+    }
+}
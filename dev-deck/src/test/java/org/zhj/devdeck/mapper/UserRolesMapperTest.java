@@ -0,0 +1,110 @@
+package org.zhj.devdeck.mapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 批量分配/收回角色的集合式 SQL，每个用例在事务中执行并回滚
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class UserRolesMapperTest {
+
+    private static final int OPERATOR = 1;
+
+    @Autowired
+    private UserRolesMapper userRolesMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer alice;
+    private Integer bob;
+    private Integer editor;
+    private Integer reviewer;
+
+    @BeforeEach
+    public void setUp() {
+        alice = insertUser("alice");
+        bob = insertUser("bob");
+        editor = insertRole("bulk-test-editor");
+        reviewer = insertRole("bulk-test-reviewer");
+    }
+
+    @Test
+    public void testAssignIsIdempotent() {
+        assertEquals(4, userRolesMapper.bulkAssign(List.of(alice, bob), List.of(editor, reviewer), OPERATOR));
+        // 已分配的行不变，不计入
+        assertEquals(0, userRolesMapper.bulkAssign(List.of(alice, bob), List.of(editor, reviewer), OPERATOR));
+        assertEquals(4, activeCount());
+        assertEquals(4, rowCount());
+    }
+
+    @Test
+    public void testRevokeThenAssignRestoresRow() {
+        userRolesMapper.bulkAssign(List.of(alice, bob), List.of(editor), OPERATOR);
+
+        assertEquals(2, userRolesMapper.bulkRevoke(List.of(alice, bob), List.of(editor), OPERATOR));
+        assertEquals(0, userRolesMapper.bulkRevoke(List.of(alice, bob), List.of(editor), OPERATOR));
+        assertEquals(0, activeCount());
+
+        // 恢复软删除的行，而不是插入新行
+        assertEquals(1, userRolesMapper.bulkAssign(List.of(alice), List.of(editor), OPERATOR));
+        assertEquals(1, activeCount());
+        assertEquals(2, rowCount());
+    }
+
+    @Test
+    public void testRevokeOnlyTargetedPairs() {
+        userRolesMapper.bulkAssign(List.of(alice, bob), List.of(editor, reviewer), OPERATOR);
+
+        assertEquals(1, userRolesMapper.bulkRevoke(List.of(alice), List.of(reviewer), OPERATOR));
+        assertEquals(3, activeCount());
+    }
+
+    @Test
+    public void testDeletedRolesAndUsersIgnored() {
+        jdbcTemplate.update("UPDATE role SET deleted_at = now() WHERE id = ?", reviewer);
+        jdbcTemplate.update("UPDATE users SET deleted_at = now() WHERE id = ?", bob);
+
+        assertEquals(1, userRolesMapper.bulkAssign(List.of(alice, bob), List.of(editor, reviewer), OPERATOR));
+        assertEquals(1, activeCount());
+    }
+
+    private int activeCount() {
+        return count("deleted_at IS NULL");
+    }
+
+    private int rowCount() {
+        return count("TRUE");
+    }
+
+    private int count(String condition) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM user_roles WHERE user_id IN (?, ?) AND role_id IN (?, ?) AND "
+                + condition, Integer.class, alice, bob, editor, reviewer);
+    }
+
+    private Integer insertUser(String nickname) {
+        String uuid = UUID.randomUUID().toString();
+        return jdbcTemplate.queryForObject("INSERT INTO users (email, password, nickname, created_at, updated_at, uuid) "
+                        + "VALUES (?, 'x', ?, now(), now(), ?) RETURNING id",
+                Integer.class, uuid + "@example.com", nickname, uuid);
+    }
+
+    private Integer insertRole(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO role (name, description, created_by, created_at, updated_by, updated_at) "
+                        + "VALUES (?, ?, ?, now(), ?, now()) RETURNING id",
+                Integer.class, name, name, OPERATOR, OPERATOR);
+    }
+}
@@ -0,0 +1,103 @@
+package org.zhj.devdeck.monitor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.zhj.devdeck.response.SystemStatus;
+import org.zhj.devdeck.response.SystemStatusHistory;
+
+import java.lang.management.MemoryUsage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 采样环形缓冲区
+ */
+public class SystemSamplerTest {
+
+    private static final float MB = 1024f * 1024f;
+
+    private SystemSampler sampler;
+
+    @BeforeEach
+    public void setUp() {
+        // 每分钟一次，保留3分钟：容量为3
+        sampler = new SystemSampler();
+        ReflectionTestUtils.setField(sampler, "intervalSeconds", 60);
+        ReflectionTestUtils.setField(sampler, "historyMinutes", 3);
+        sampler.allocate();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertNull(sampler.current());
+        SystemStatusHistory history = sampler.history(3);
+        assertEquals(60, history.getIntervalSeconds());
+        assertEquals(0, history.getTimestamps().length);
+        assertEquals(0, history.getCpu().length);
+    }
+
+    @Test
+    public void testHistoryBeforeWrap() {
+        record(0);
+        record(1);
+
+        SystemStatusHistory history = sampler.history(3);
+        assertArrayEquals(new long[]{0, 1}, history.getTimestamps());
+        assertArrayEquals(new float[]{0, 1}, history.getCpu());
+        assertArrayEquals(new long[]{1}, sampler.history(1).getTimestamps());
+    }
+
+    @Test
+    public void testHistoryAfterWrap() {
+        for (int t = 0; t < 5; t++) {
+            record(t);
+        }
+
+        // 最旧的两次被覆盖，仍按时间升序返回
+        SystemStatusHistory history = sampler.history(3);
+        assertArrayEquals(new long[]{2, 3, 4}, history.getTimestamps());
+        assertArrayEquals(new float[]{2, 3, 4}, history.getCpu());
+        assertArrayEquals(new float[]{2, 3, 4}, history.getHeapUsed());
+        assertArrayEquals(new int[]{2, 3, 4}, history.getThreads());
+        assertArrayEquals(new long[]{3, 4}, sampler.history(2).getTimestamps());
+        assertArrayEquals(new long[]{4}, sampler.history(1).getTimestamps());
+    }
+
+    @Test
+    public void testHistoryClampsMinutes() {
+        for (int t = 0; t < 4; t++) {
+            record(t);
+        }
+
+        assertArrayEquals(new long[]{1, 2, 3}, sampler.history(60).getTimestamps());
+        assertArrayEquals(new long[]{3}, sampler.history(0).getTimestamps());
+    }
+
+    @Test
+    public void testCurrentIsLatest() {
+        for (int t = 0; t < 4; t++) {
+            record(t);
+        }
+
+        SystemStatus status = sampler.current();
+        assertEquals(3, status.getTimestamp());
+        assertEquals(3f, status.getCpu());
+        assertEquals(3f, status.getHeapUsed());
+        assertEquals(10f, status.getHeapMax());
+        assertEquals(3, status.getThreads());
+    }
+
+    @Test
+    public void testHeapMaxFallsBackToCommitted() {
+        sampler.record(0, 0, 0, 0, 0, new MemoryUsage(0, (long) MB, (long) (4 * MB), -1), 0, 0, 1, 0);
+
+        assertEquals(4f, sampler.current().getHeapMax());
+    }
+
+    /** 以 t 作为时间戳及各指标值写入一次采样 */
+    private void record(int t) {
+        long used = (long) (t * MB);
+        sampler.record(t, t, t, t, t, new MemoryUsage(0, used, used, (long) (10 * MB)), t, t, t, t);
+    }
+}
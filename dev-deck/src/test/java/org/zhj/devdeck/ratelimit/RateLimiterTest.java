@@ -0,0 +1,118 @@
+package org.zhj.devdeck.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 限流器本地预过滤
+ */
+public class RateLimiterTest {
+
+    // 整个测试落在同一个固定窗口内
+    private static final long WINDOW = Long.MAX_VALUE;
+
+    @Test
+    public void testSlidingWindowLocalCeiling() {
+        FakeRedisTemplate redis = new FakeRedisTemplate(1L);
+        RateLimiter rateLimiter = new RateLimiter(redis);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.tryAcquire("login:ip:1", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW));
+        }
+        // 已放行 permits 次，本地直接拒绝，不访问 Redis
+        assertFalse(rateLimiter.tryAcquire("login:ip:1", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW));
+        assertFalse(rateLimiter.tryAcquire("login:ip:1", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW));
+        assertEquals(3, redis.calls.get());
+
+        // 不同 key 互不影响
+        assertTrue(rateLimiter.tryAcquire("login:ip:2", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW));
+        assertEquals(4, redis.calls.get());
+    }
+
+    @Test
+    public void testTokenBucketLocalCeiling() {
+        FakeRedisTemplate redis = new FakeRedisTemplate(1L);
+        RateLimiter rateLimiter = new RateLimiter(redis);
+
+        // 令牌桶一个窗口内最多放行满桶加一次补满，即 permits * 2
+        for (int i = 0; i < 6; i++) {
+            assertTrue(rateLimiter.tryAcquire("submit:user:1", RateLimitAlgorithm.TOKEN_BUCKET, 3, WINDOW));
+        }
+        assertFalse(rateLimiter.tryAcquire("submit:user:1", RateLimitAlgorithm.TOKEN_BUCKET, 3, WINDOW));
+        assertEquals(6, redis.calls.get());
+    }
+
+    @Test
+    public void testRejectedByRedisNotCountedLocally() {
+        FakeRedisTemplate redis = new FakeRedisTemplate(0L);
+        RateLimiter rateLimiter = new RateLimiter(redis);
+
+        // Redis 拒绝的请求不计入本地次数，每次仍由 Redis 判定
+        for (int i = 0; i < 5; i++) {
+            assertFalse(rateLimiter.tryAcquire("login:ip:1", RateLimitAlgorithm.SLIDING_WINDOW, 2, WINDOW));
+        }
+        assertEquals(5, redis.calls.get());
+    }
+
+    @Test
+    public void testFailOpenWhenRedisUnavailable() {
+        FakeRedisTemplate redis = new FakeRedisTemplate(null);
+        RateLimiter rateLimiter = new RateLimiter(redis);
+
+        // 脚本执行失败时放行，且不计入本地次数
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.tryAcquire("login:ip:1", RateLimitAlgorithm.SLIDING_WINDOW, 2, WINDOW));
+        }
+        assertEquals(5, redis.calls.get());
+    }
+
+    @Test
+    public void testRefundReopensLocalCeiling() {
+        FakeRedisTemplate redis = new FakeRedisTemplate(1L);
+        RateLimiter rateLimiter = new RateLimiter(redis);
+
+        assertTrue(rateLimiter.tryAcquire("verify-code:interval:a", RateLimitAlgorithm.SLIDING_WINDOW, 1, WINDOW));
+        assertFalse(rateLimiter.tryAcquire("verify-code:interval:a", RateLimitAlgorithm.SLIDING_WINDOW, 1, WINDOW));
+
+        // 退还后本地计数回退，并执行一次 Redis 退还脚本
+        rateLimiter.refund("verify-code:interval:a", RateLimitAlgorithm.SLIDING_WINDOW, 1, WINDOW);
+        assertEquals(2, redis.calls.get());
+        assertTrue(rateLimiter.tryAcquire("verify-code:interval:a", RateLimitAlgorithm.SLIDING_WINDOW, 1, WINDOW));
+    }
+
+    @Test
+    public void testRefundIgnoresRedisFailure() {
+        FakeRedisTemplate redis = new FakeRedisTemplate(null);
+        RateLimiter rateLimiter = new RateLimiter(redis);
+
+        assertDoesNotThrow(() -> rateLimiter.refund("verify-code:interval:a", RateLimitAlgorithm.TOKEN_BUCKET, 1, WINDOW));
+    }
+
+    /**
+     * 固定返回脚本结果的 RedisTemplate；result 为空时模拟 Redis 不可用
+     */
+    private static class FakeRedisTemplate extends StringRedisTemplate {
+        private final Long result;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FakeRedisTemplate(Long result) {
+            this.result = result;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            calls.incrementAndGet();
+            if (result == null) {
+                throw new IllegalStateException("redis unavailable");
+            }
+            return (T) result;
+        }
+    }
+}
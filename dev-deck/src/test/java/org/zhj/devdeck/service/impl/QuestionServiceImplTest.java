@@ -0,0 +1,107 @@
+package org.zhj.devdeck.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.zhj.devdeck.cache.QuestionIdIndex;
+import org.zhj.devdeck.request.ComposeQuizRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * 组卷配额分配与补齐逻辑
+ */
+public class QuestionServiceImplTest {
+
+    private QuestionIdIndex questionIdIndex;
+    private QuestionServiceImpl questionService;
+
+    @BeforeEach
+    public void setUp() {
+        questionIdIndex = mock(QuestionIdIndex.class);
+        questionService = new QuestionServiceImpl();
+        ReflectionTestUtils.setField(questionService, "questionIdIndex", questionIdIndex);
+    }
+
+    @Test
+    public void testAllocateQuotasExactWeights() {
+        int[] allocation = QuestionServiceImpl.allocateQuotas(10, List.of(quota(1, 50), quota(2, 30), quota(3, 20)));
+        assertArrayEquals(new int[]{5, 3, 2}, allocation);
+    }
+
+    @Test
+    public void testAllocateQuotasLargestRemainder() {
+        // 精确值 1.333 / 0.667，余数较大的第二项分得剩余的1道
+        assertArrayEquals(new int[]{1, 1}, QuestionServiceImpl.allocateQuotas(2, List.of(quota(1, 2), quota(2, 1))));
+        // 余数相同时按顺序优先
+        assertArrayEquals(new int[]{4, 3, 3},
+                QuestionServiceImpl.allocateQuotas(10, List.of(quota(1, 1), quota(2, 1), quota(3, 1))));
+    }
+
+    @Test
+    public void testAllocateQuotasSumsToCount() {
+        for (int count = 1; count <= 50; count++) {
+            int[] allocation = QuestionServiceImpl.allocateQuotas(count,
+                    List.of(quota(1, 7), quota(2, 11), quota(3, 13)));
+            assertEquals(count, allocation[0] + allocation[1] + allocation[2]);
+        }
+    }
+
+    @Test
+    public void testAllocateQuotasEmpty() {
+        assertEquals(0, QuestionServiceImpl.allocateQuotas(10, List.of()).length);
+    }
+
+    @Test
+    public void testPickQuizIdsFillsShortfall() {
+        when(questionIdIndex.sample(isNull(), eq(1), isNull(), eq(5), anySet())).thenReturn(List.of(1, 2, 3, 4, 5));
+        // 中等难度只有1道，缺2道
+        when(questionIdIndex.sample(isNull(), eq(2), isNull(), eq(3), anySet())).thenReturn(List.of(6));
+        when(questionIdIndex.sample(isNull(), eq(3), isNull(), eq(2), anySet())).thenReturn(List.of(7, 8));
+        when(questionIdIndex.sample(isNull(), isNull(), isNull(), eq(2), anySet())).thenReturn(List.of(9, 10));
+
+        Set<Integer> excluded = new HashSet<>(Set.of(100));
+        List<Integer> picked = questionService.pickQuizIds(10, null, excluded,
+                List.of(quota(1, 50), quota(2, 30), quota(3, 20)));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), picked);
+        // 配额抽中的题目在补齐时被排除
+        assertTrue(excluded.containsAll(List.of(100, 1, 2, 3, 4, 5, 6, 7, 8)));
+        verify(questionIdIndex).sample(isNull(), isNull(), isNull(), eq(2), anySet());
+    }
+
+    @Test
+    public void testPickQuizIdsSkipsQuotaOutsideScope() {
+        ComposeQuizRequest.Quota outside = quota(null, 1);
+        outside.setCategoryId(2);
+        when(questionIdIndex.sample(eq(Set.of(1)), isNull(), isNull(), eq(3), anySet())).thenReturn(List.of(1, 2, 3));
+
+        List<Integer> picked = questionService.pickQuizIds(3, Set.of(1), new HashSet<>(), new ArrayList<>(List.of(outside)));
+
+        assertEquals(List.of(1, 2, 3), picked);
+        verify(questionIdIndex, times(1)).sample(any(), any(), any(), anyInt(), anySet());
+    }
+
+    @Test
+    public void testPickQuizIdsWithoutQuotas() {
+        when(questionIdIndex.sample(isNull(), isNull(), isNull(), eq(4), anySet())).thenReturn(List.of(4, 3));
+
+        assertEquals(List.of(4, 3), questionService.pickQuizIds(4, null, new HashSet<>(), List.of()));
+    }
+
+    private static ComposeQuizRequest.Quota quota(Integer difficulty, int weight) {
+        ComposeQuizRequest.Quota quota = new ComposeQuizRequest.Quota();
+        quota.setDifficulty(difficulty);
+        quota.setWeight(weight);
+        return quota;
+    }
+}
@@ -0,0 +1,78 @@
+package org.zhj.devdeck.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.zhj.devdeck.exception.QuizException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标编解码
+ */
+public class CursorUtilsTest {
+
+    @Test
+    public void testRoundTrip() {
+        String token = CursorUtils.encode("createdAt", 42, 1747555200123L);
+        CursorUtils.Cursor cursor = CursorUtils.decode(token, "createdAt");
+
+        assertEquals(42, cursor.getId());
+        assertEquals(1747555200123L, cursor.longValue());
+    }
+
+    @Test
+    public void testRoundTripKeepsSeparatorInValue() {
+        CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode("title", 7, "a:b:c"), "title");
+
+        assertEquals(7, cursor.getId());
+        assertEquals("a:b:c", cursor.getValue());
+    }
+
+    @Test
+    public void testRoundTripNullValue() {
+        CursorUtils.Cursor cursor = CursorUtils.decode(CursorUtils.encode("id", 3, null), "id");
+
+        assertEquals(3, cursor.getId());
+        assertEquals("", cursor.getValue());
+    }
+
+    @Test
+    public void testBlankTokenReturnsNull() {
+        assertNull(CursorUtils.decode(null, "id"));
+        assertNull(CursorUtils.decode("", "id"));
+        assertNull(CursorUtils.decode("   ", "id"));
+    }
+
+    @Test
+    public void testRejectsMismatchedSortBy() {
+        String token = CursorUtils.encode("createdAt", 1, 100L);
+        assertBadCursor(() -> CursorUtils.decode(token, "difficulty"));
+    }
+
+    @Test
+    public void testRejectsMalformedToken() {
+        assertBadCursor(() -> CursorUtils.decode("not*base64!", "id"));
+        assertBadCursor(() -> CursorUtils.decode(raw("id:1"), "id"));
+        assertBadCursor(() -> CursorUtils.decode(raw("id:abc:1"), "id"));
+    }
+
+    @Test
+    public void testRejectsNonNumericValue() {
+        CursorUtils.Cursor cursor = CursorUtils.decode(raw("createdAt:1:abc"), "createdAt");
+
+        assertBadCursor(cursor::intValue);
+        assertBadCursor(cursor::longValue);
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertBadCursor(Executable executable) {
+        QuizException e = assertThrows(QuizException.class, executable);
+        assertEquals(400, e.getCode());
+    }
+}
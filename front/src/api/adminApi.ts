@@ -47,6 +47,20 @@ export interface UpdateUserRolesRequest {
   roleIdsToDelete?: number[];
 }
 
+export interface BulkUpdateUserRolesRequest {
+  userUuids: string[];
+  roleIds?: number[];
+  roleIdsToDelete?: number[];
+}
+
+// 批量更新用户角色结果
+export interface BulkUserRolesResult {
+  users: number;
+  missingUuids: string[];
+  assigned: number;
+  revoked: number;
+}
+
 // 权限VO接口
 export interface PermissionVO {
   id: number;
@@ -89,6 +103,8 @@ export interface UserListParams {
   pageSize: number;
   nickName?: string;
   email?: string;
+  // 游标分页：上一页返回的 nextCursor
+  after?: string;
 }
 
 // 用户角色接口
@@ -103,6 +119,37 @@ export interface UserRole {
   updatedAt: string;
 }
 
+// 系统状态（主机使用率为 %，网络为 KB/s，堆为 MB，GC 为采样间隔内的增量）
+export interface SystemStatus {
+  timestamp: number;
+  cpu: number;
+  memory: number;
+  disk: number;
+  network: number;
+  heapUsed: number;
+  heapMax: number;
+  gcCount: number;
+  gcMillis: number;
+  threads: number;
+  samplerCpu: number;
+}
+
+// 系统状态时间序列，各数组下标一一对应
+export interface SystemStatusHistory {
+  intervalSeconds: number;
+  timestamps: number[];
+  cpu: number[];
+  memory: number[];
+  disk: number[];
+  network: number[];
+  heapUsed: number[];
+  heapMax: number[];
+  gcCount: number[];
+  gcMillis: number[];
+  threads: number[];
+  samplerCpu: number[];
+}
+
 // 分页响应接口
 export interface PageResponse<T> {
   records: T[];
@@ -156,6 +203,27 @@ export const getUserList = async (params: UserListParams) => {
   return api.post('/admin/user/list', params);
 };
 
+// 用户列表游标分页，pageNo 不生效
+export const getUserCursor = async (params: UserListParams) => {
+  return api.post('/admin/user/cursor', params);
+};
+
 export const updateUserRoles = async (data: UpdateUserRolesRequest) => {
   return api.post('/admin/user/roles', data);
-}; 
\ No newline at end of file
+};
+
+// 批量更新用户角色：对所有用户先删除 roleIdsToDelete，再添加 roleIds
+export const bulkUpdateUserRoles = async (data: BulkUpdateUserRolesRequest) => {
+  return api.post('/admin/user/roles/bulk', data);
+}; 
+
+// 系统监控API
+export const getSystemStatus = async () => {
+  return api.get('/admin/system/status');
+};
+
+export const getSystemHistory = async (minutes = 15) => {
+  return api.get('/admin/system/history', {
+    params: { minutes }
+  });
+};
@@ -19,6 +19,7 @@ export interface Question {
   difficulty: number;
   difficultyName: string;
   submitCount: number;
+  favoriteCount: number;
   hint?: string;
   source?: string;
   isOfficial: boolean;
@@ -27,6 +28,8 @@ export interface Question {
   categoryName: string;
   createdAt: string;
   updatedAt: string;
+  highlight?: string;
+  favoritedAt?: string;
 }
 
 export interface CreateQuestionRequest {
@@ -64,6 +67,7 @@ export interface QuestionPageRequest {
   page?: number;
   size?: number;
   title?: string;
+  q?: string;
   categoryId?: number;
   type?: number;
   difficulty?: number;
@@ -71,6 +75,7 @@ export interface QuestionPageRequest {
   isEnabled?: boolean;
   sortBy?: string;
   sortOrder?: string;
+  after?: string;
 }
 
 export interface PageResult<T> {
@@ -86,6 +91,25 @@ export const getQuestionPage = (params: QuestionPageRequest): Promise<ApiRespons
   return request.get('/api/questions', { params });
 };
 
+export interface CursorPageResult<T> {
+  records: T[];
+  size: number;
+  nextCursor?: string;
+  hasMore: boolean;
+}
+
+// 游标分页查询题目（无限滚动）
+export const getQuestionCursor = (params: QuestionPageRequest): Promise<ApiResponse<CursorPageResult<Question>>> => {
+  return request.get('/api/questions/cursor', { params });
+};
+
+// 根据分类ID游标分页获取题目列表
+export const getQuestionCursorByCategory = (categoryId: number, after?: string, size = 10): Promise<ApiResponse<CursorPageResult<Question>>> => {
+  return request.get(`/api/questions/category/${categoryId}/cursor`, {
+    params: { after, size }
+  });
+};
+
 // 根据分类ID获取题目列表
 export const getQuestionsByCategory = (categoryId: number, page = 1, size = 10): Promise<ApiResponse<PageResult<Question>>> => {
   return request.get(`/api/questions/category/${categoryId}`, {
@@ -177,7 +201,38 @@ export const checkFavoriteStatus = (questionId: number): Promise<ApiResponse<boo
   return request.get(`/api/favorites/questions/${questionId}/status`);
 };
 
+// 批量检查收藏状态，返回与 questionIds 顺序一致的布尔数组
+export const checkFavoriteStatuses = (questionIds: number[]): Promise<ApiResponse<boolean[]>> => {
+  return request.get('/api/favorites/questions/status', {
+    params: { ids: questionIds.join(',') }
+  });
+};
+
 // 获取我的收藏题目列表
 export const getFavoriteQuestions = (params: QuestionPageRequest): Promise<ApiResponse<PageResult<Question>>> => {
   return request.get('/api/favorites/questions', { params });
-}; 
\ No newline at end of file
+};
+
+// 游标分页获取我的收藏题目列表（按收藏时间倒序）
+export const getFavoriteQuestionCursor = (params: QuestionPageRequest): Promise<ApiResponse<CursorPageResult<Question>>> => {
+  return request.get('/api/favorites/questions/cursor', { params });
+}; 
+export interface QuizQuota {
+  difficulty?: number;
+  type?: number;
+  categoryId?: number;
+  weight: number;
+}
+
+export interface ComposeQuizRequest {
+  count: number;
+  categoryId?: number;
+  includeSubcategories?: boolean;
+  quotas?: QuizQuota[];
+  excludeIds?: number[];
+}
+
+// 按配额组卷
+export const composeQuiz = (data: ComposeQuizRequest): Promise<ApiResponse<Question[]>> => {
+  return request.post('/api/questions/quiz', data);
+};
@@ -1,10 +1,39 @@
-import React from 'react';
-import { Card, Typography, Row, Col, Button } from 'antd';
+import React, { useState, useEffect } from 'react';
+import { Card, Typography, Row, Col, Button, Statistic } from 'antd';
 import { Link } from 'react-router-dom';
+import { getSystemStatus, SystemStatus } from '@/api/adminApi';
 
 const { Title, Paragraph } = Typography;
 
+// 与后端采样间隔一致
+const STATUS_POLL_MILLIS = 5000;
+
 const AdminHomePage: React.FC = () => {
+  const [status, setStatus] = useState<SystemStatus | null>(null);
+
+  useEffect(() => {
+    let timer: ReturnType<typeof setInterval> | undefined;
+    const fetchStatus = async () => {
+      try {
+        const response = await getSystemStatus();
+        if (response.code === 200) {
+          setStatus(response.data);
+        } else if (timer) {
+          clearInterval(timer);
+        }
+      } catch (error) {
+        // 无监控权限或请求失败时停止轮询
+        console.error('获取系统状态失败:', error);
+        if (timer) {
+          clearInterval(timer);
+        }
+      }
+    };
+    fetchStatus();
+    timer = setInterval(fetchStatus, STATUS_POLL_MILLIS);
+    return () => clearInterval(timer);
+  }, []);
+
   return (
     <div className="admin-home-page">
       <div className="mb-6">
@@ -14,6 +43,31 @@ const AdminHomePage: React.FC = () => {
         </Paragraph>
       </div>
 
+      {status && (
+        <Card title="系统状态" className="mb-6">
+          <Row gutter={[16, 16]}>
+            <Col xs={12} sm={8} md={4}>
+              <Statistic title="CPU" value={status.cpu} precision={1} suffix="%" />
+            </Col>
+            <Col xs={12} sm={8} md={4}>
+              <Statistic title="内存" value={status.memory} precision={1} suffix="%" />
+            </Col>
+            <Col xs={12} sm={8} md={4}>
+              <Statistic title="磁盘" value={status.disk} precision={1} suffix="%" />
+            </Col>
+            <Col xs={12} sm={8} md={4}>
+              <Statistic title="网络" value={status.network} precision={1} suffix="KB/s" />
+            </Col>
+            <Col xs={12} sm={8} md={4}>
+              <Statistic title="JVM 堆" value={status.heapUsed} precision={0} suffix={`/ ${Math.round(status.heapMax)} MB`} />
+            </Col>
+            <Col xs={12} sm={8} md={4}>
+              <Statistic title="线程数" value={status.threads} />
+            </Col>
+          </Row>
+        </Card>
+      )}
+
       <Row gutter={[16, 16]}>
         <Col xs={24} sm={12} md={8}>
           <Card 
@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { 
   getQuestionPage, 
+  getQuestionById,
   createQuestion, 
   updateQuestion, 
   deleteQuestion,
@@ -98,7 +99,21 @@ const QuestionManagePage: React.FC = () => {
     setShowModal(true);
   };
 
-  const handleEdit = (question: Question) => {
+  const handleEdit = async (summary: Question) => {
+    // 列表只返回摘要字段，编辑前需拉取题目详情
+    let question: Question;
+    try {
+      const response = await getQuestionById(summary.id);
+      if (response.code !== 200) {
+        alert(response.message || '加载题目详情失败');
+        return;
+      }
+      question = response.data;
+    } catch (error) {
+      console.error('加载题目详情失败:', error);
+      alert('加载题目详情失败');
+      return;
+    }
     setEditingQuestion(question);
     setFormData({
       title: question.title,
@@ -346,6 +346,7 @@ const UserRolesPage: React.FC = () => {
       user: '用户管理',
       role: '角色权限',
       question: '题目管理',
+      category: '分类管理',
       post: '社区管理',
       system: '系统设置',
       other: '其他权限',
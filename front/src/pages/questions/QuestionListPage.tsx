@@ -297,9 +297,12 @@ const QuestionListPage: React.FC = () => {
                       {question.title}
                     </h3>
                     
-                    <p className="text-gray-600 text-sm mb-4 line-clamp-3">
-                      {question.content.replace(/<[^>]*>/g, '').substring(0, 100)}...
-                    </p>
+                    {question.highlight && (
+                      <p
+                        className="text-gray-600 text-sm mb-4 line-clamp-3"
+                        dangerouslySetInnerHTML={{ __html: question.highlight }}
+                      />
+                    )}
                     
                     <div className="flex items-center justify-between text-sm text-gray-500">
                       <span className="bg-gray-100 px-2 py-1 rounded">